@@ -0,0 +1,258 @@
+package io.github.grisstyl.potterplus.api.misc;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Color;
+import org.bukkit.Material;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Server;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.LeatherArmorMeta;
+import org.bukkit.inventory.meta.SkullMeta;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Compares building an item with one meta pass against the previous build path, which fetched (and so cloned) the meta again for skulls and leather armor and set it once per pass. The gc profiler configured in build.gradle reports the allocations per build.
+ *
+ * There is no server in a benchmark, so a stand-in server and item factory are installed whose metas keep their attributes in a map and copy it when cloned, like CraftBukkit's metas do. Absolute numbers are therefore only indicative; the difference between the paths is what matters.
+ *
+ * Run all benchmarks with ./gradlew jmh, or this one with ./gradlew jmhJar && java -jar build/libs/PotterPlusCompanion-1.0-SNAPSHOT-jmh.jar ItemStackBuilderBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemStackBuilderBenchmark {
+
+    /**
+     * Metas of the stand-in factory. CraftBukkit's metas are all Damageable, so these are too.
+     */
+    public interface StubSkullMeta extends SkullMeta, Damageable {
+
+        @Override
+        StubSkullMeta clone();
+    }
+
+    public interface StubLeatherMeta extends LeatherArmorMeta, Damageable {
+
+        @Override
+        StubLeatherMeta clone();
+    }
+
+    @Param({ "PLAYER_HEAD", "LEATHER_HELMET", "DIAMOND_SWORD", "NAME_TAG" })
+    private Material material;
+
+    private ItemStackBuilder builder;
+
+    private String name;
+    private List<String> lore;
+    private UUID owner;
+    private Color color;
+
+    @Setup
+    public void setup() {
+        StubServer.install();
+
+        this.name = "&6Benchmark &#12ab34#item";
+        this.lore = Arrays.asList("&7First line", "&8> &6Left-click &7to do something", "&8> &6Right-click &7to do something else");
+        this.owner = new UUID(42L, 42L);
+        this.color = Color.fromRGB(0x12AB34);
+        this.builder = ItemStackBuilder.start(material)
+                .name(name)
+                .lore(lore)
+                .durability((short) 3)
+                .owningPlayer(owner)
+                .color(color);
+    }
+
+    /**
+     * Builds through the single meta pass. Changing the amount drops the memoized prototype, so every call builds from scratch.
+     */
+    @Benchmark
+    public ItemStack singlePass() {
+        return builder.amount(1).build();
+    }
+
+    /**
+     * Builds through the memoized prototype, i.e. the cost of a repeated render.
+     */
+    @Benchmark
+    public ItemStack memoized() {
+        return builder.build();
+    }
+
+    /**
+     * The build path before the single meta pass.
+     */
+    @Benchmark
+    public ItemStack previous() {
+        ItemStack itemStack = new ItemStack(material, 1);
+        ItemMeta meta = itemStack.getItemMeta();
+
+        if (meta instanceof Damageable) {
+            ((Damageable) meta).setDamage(3);
+        }
+
+        meta.setUnbreakable(false);
+        meta.setDisplayName(ColorCache.shared().color(name));
+        meta.setLore(ColorCache.shared().color(lore));
+
+        itemStack.setItemMeta(meta);
+
+        Material type = itemStack.getType();
+
+        if (type.equals(Material.PLAYER_HEAD) && itemStack.getItemMeta() instanceof SkullMeta) {
+            SkullMeta sm = (SkullMeta) itemStack.getItemMeta();
+
+            sm.setOwningPlayer(Bukkit.getOfflinePlayer(owner));
+
+            itemStack.setItemMeta(sm);
+        }
+
+        if ((type.equals(Material.LEATHER_BOOTS) || type.equals(Material.LEATHER_LEGGINGS) || type.equals(Material.LEATHER_CHESTPLATE) || type.equals(Material.LEATHER_HELMET))
+                && itemStack.getItemMeta() instanceof LeatherArmorMeta) {
+            LeatherArmorMeta lm = (LeatherArmorMeta) itemStack.getItemMeta();
+
+            lm.setColor(color);
+
+            itemStack.setItemMeta(lm);
+        }
+
+        return itemStack;
+    }
+
+    /**
+     * A stand-in server which only provides what building items needs.
+     */
+    static final class StubServer {
+
+        private static final Logger LOGGER = Logger.getLogger("ItemStackBuilderBenchmark");
+
+        static synchronized void install() {
+            if (Bukkit.getServer() != null) {
+                return;
+            }
+
+            ItemFactory factory = proxy(ItemFactory.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getItemMeta":
+                        return meta((Material) args[0], new HashMap<>());
+                    case "isApplicable":
+                        return true;
+                    case "asMetaFor":
+                        return args[0];
+                    case "equals":
+                        return args.length == 2 ? Objects.equals(args[0], args[1]) : proxy == args[0];
+                    default:
+                        return defaultValue(method.getReturnType());
+                }
+            });
+
+            Bukkit.setServer(proxy(Server.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getLogger":
+                        return LOGGER;
+                    case "getName":
+                    case "getVersion":
+                    case "getBukkitVersion":
+                        return "benchmark";
+                    case "getItemFactory":
+                        return factory;
+                    case "getOfflinePlayer":
+                        return offlinePlayer((UUID) args[0]);
+                    default:
+                        return defaultValue(method.getReturnType());
+                }
+            }));
+        }
+
+        private static ItemMeta meta(Material material, Map<String, Object> attributes) {
+            Class<? extends ItemMeta> type;
+
+            switch (ItemStackBuilder.getMetaKind(material)) {
+                case SKULL:
+                    type = StubSkullMeta.class;
+                    break;
+                case LEATHER:
+                    type = StubLeatherMeta.class;
+                    break;
+                default:
+                    type = Damageable.class;
+            }
+
+            return proxy(type, (proxy, method, args) -> {
+                String name = method.getName();
+
+                if (name.equals("clone")) {
+                    return meta(material, new HashMap<>(attributes));
+                } else if (name.equals("equals")) {
+                    return proxy == args[0];
+                } else if (name.equals("hashCode")) {
+                    return attributes.hashCode();
+                } else if (name.equals("toString")) {
+                    return material + "" + attributes;
+                } else if (name.startsWith("set") && args != null && args.length == 1) {
+                    attributes.put(name.substring(3), args[0]);
+
+                    return method.getReturnType() == boolean.class ? Boolean.TRUE : null;
+                } else if (name.startsWith("get") && attributes.containsKey(name.substring(3))) {
+                    return attributes.get(name.substring(3));
+                }
+
+                return defaultValue(method.getReturnType());
+            });
+        }
+
+        private static OfflinePlayer offlinePlayer(UUID uuid) {
+            return proxy(OfflinePlayer.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getUniqueId":
+                        return uuid;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return uuid.hashCode();
+                    default:
+                        return defaultValue(method.getReturnType());
+                }
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+        }
+
+        private static Object defaultValue(Class<?> type) {
+            if (type == boolean.class) {
+                return false;
+            } else if (type == int.class) {
+                return 0;
+            } else if (type == long.class) {
+                return 0L;
+            } else if (type == short.class) {
+                return (short) 0;
+            } else if (type == byte.class) {
+                return (byte) 0;
+            } else if (type == double.class) {
+                return 0D;
+            } else if (type == float.class) {
+                return 0F;
+            } else if (type == char.class) {
+                return '\0';
+            }
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.grisstyl.potterplus.companion.listener;
+
+import io.github.grisstyl.potterplus.api.permission.PermissionCache;
+import io.github.grisstyl.potterplus.companion.binding.ComboBuffer;
+import io.github.grisstyl.potterplus.companion.binding.ComboTrie;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-click cost of the interact path for a server full of players: the click throttle, the cached permission check and combo matching against the per-player ring buffers. The gc profiler configured in build.gradle reports allocations per click, which should be zero for the throttle and combo paths once warmed up.
+ *
+ * Run all benchmarks with ./gradlew jmh, or this one with ./gradlew jmhJar && java -jar build/libs/PotterPlusCompanion-1.0-SNAPSHOT-jmh.jar ClickPathBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClickPathBenchmark {
+
+    private static final String NODE = "potterplus.progressmenu.click";
+
+    @Param({ "100", "500" })
+    private int players;
+
+    private UUID[] uuids;
+    private Player[] entities;
+    private ComboBuffer[] buffers;
+    private byte[] clicks;
+
+    private ClickThrottle throttle;
+    private ComboTrie combos;
+    private int node;
+
+    private int cursor;
+    private long time;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42L);
+
+        this.uuids = new UUID[players];
+        this.entities = new Player[players];
+        this.buffers = new ComboBuffer[players];
+        this.clicks = new byte[4096];
+
+        MemoryConfiguration section = new MemoryConfiguration();
+
+        section.set("LLR", "fireball");
+        section.set("RRL", "blink");
+        section.set("LRLR", "lightning");
+        section.set("RRRR", "heal");
+
+        this.combos = ComboTrie.compile(section);
+
+        for (int i = 0; i < players; i++) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+
+            uuids[i] = uuid;
+            entities[i] = player(uuid);
+            buffers[i] = new ComboBuffer(combos.getMaxLength());
+        }
+
+        for (int i = 0; i < clicks.length; i++) {
+            clicks[i] = random.nextBoolean() ? ComboTrie.LEFT : ComboTrie.RIGHT;
+        }
+
+        this.throttle = new ClickThrottle();
+
+        // There is no server to register the invalidating listener with, and nothing fires its events anyway.
+        PermissionCache.prepare(listener -> {}, PermissionCache.DEFAULT_TTL);
+
+        this.node = PermissionCache.intern(NODE);
+    }
+
+    private static Player player(UUID uuid) {
+        return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class<?>[] { Player.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return uuid;
+                case "hasPermission":
+                    return true;
+                case "hashCode":
+                    return uuid.hashCode();
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private int next() {
+        cursor = (cursor + 1) % players;
+        time += 7L;
+
+        return cursor;
+    }
+
+    @Benchmark
+    public boolean throttle() {
+        return throttle.tryAcquire(uuids[next()], 0L, 0);
+    }
+
+    @Benchmark
+    public boolean permission() {
+        return PermissionCache.has(entities[next()], NODE, node);
+    }
+
+    @Benchmark
+    public String combo() {
+        int player = next();
+        ComboBuffer buffer = buffers[player];
+
+        buffer.push(clicks[(int) (time & (clicks.length - 1))], time);
+
+        return combos.match(buffer, 500L);
+    }
+
+    @Benchmark
+    public String click() {
+        int player = next();
+
+        if (!PermissionCache.has(entities[player], NODE, node) || !throttle.tryAcquire(uuids[player], 0L, 0)) {
+            return null;
+        }
+
+        ComboBuffer buffer = buffers[player];
+
+        buffer.push(clicks[(int) (time & (clicks.length - 1))], time);
+
+        return combos.match(buffer, 500L);
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.grisstyl.potterplus.api.command;
+
+import lombok.Getter;
+
+/**
+ * Thrown by an ArgumentType when an argument cannot be parsed. The messages are sent to the command sender in place of executing the command.
+ */
+public class ArgumentException extends RuntimeException {
+
+    @Getter
+    private final String[] messages;
+
+    public ArgumentException(String... messages) {
+        super(messages.length == 0 ? null : messages[0]);
+
+        this.messages = messages;
+    }
+}
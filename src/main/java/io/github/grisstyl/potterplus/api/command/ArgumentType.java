@@ -0,0 +1,18 @@
+package io.github.grisstyl.potterplus.api.command;
+
+/**
+ * Parses an argument of a sub-command's signature.
+ * @param <T> The parsed type.
+ */
+@FunctionalInterface
+public interface ArgumentType<T> {
+
+    /**
+     * Parses an argument.
+     * @param context The context of the execution.
+     * @param input The argument typed by the sender.
+     * @return The parsed value, never null.
+     * @throws ArgumentException If the argument is invalid.
+     */
+    T parse(CommandContext context, String input) throws ArgumentException;
+}
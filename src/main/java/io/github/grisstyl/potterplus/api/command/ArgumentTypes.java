@@ -0,0 +1,46 @@
+package io.github.grisstyl.potterplus.api.command;
+
+import io.github.grisstyl.potterplus.api.misc.FriendlyBooleans;
+import org.bukkit.entity.Player;
+
+/**
+ * The built-in argument types. Boolean parsing and its error hints go through the FriendlyBooleans vocabulary.
+ */
+public class ArgumentTypes {
+
+    public static final ArgumentType<String> STRING = (context, input) -> input;
+
+    public static final ArgumentType<Boolean> BOOLEAN = (context, input) -> {
+        Boolean bool = FriendlyBooleans.parseBoolean(input);
+
+        if (bool == null) {
+            throw new ArgumentException("&cValid booleans&8: &e" + FriendlyBooleans.getHint(false));
+        }
+
+        return bool;
+    };
+
+    /**
+     * A boolean which may also be "toggle".
+     */
+    public static final ArgumentType<FriendlyBooleans.State> STATE = (context, input) -> {
+        FriendlyBooleans.State state = FriendlyBooleans.parseState(input);
+
+        if (state == null) {
+            throw new ArgumentException("&cValid booleans&8: &e" + FriendlyBooleans.getHint(true));
+        }
+
+        return state;
+    };
+
+    public static final ArgumentType<Integer> INTEGER = (context, input) -> {
+        try {
+            return Integer.parseInt(input);
+        } catch (NumberFormatException e) {
+            throw new ArgumentException("&cInvalid number&8: &7" + input);
+        }
+    };
+
+    public static final ArgumentType<Player> PLAYER = (context, input) -> context.resolveTarget(input)
+            .orElseThrow(() -> new ArgumentException("&cPlayer not found&8: &7" + input));
+}
@@ -1,11 +1,15 @@
 package io.github.grisstyl.potterplus.api.command;
 
+import io.github.grisstyl.potterplus.api.misc.StringUtilities;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NonNull;
 import org.bukkit.command.*;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.util.List;
+import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * An implementation of CommandExecutor and TabCompleter.
@@ -13,16 +17,239 @@ import java.util.List;
  */
 public abstract class CommandBase<T extends JavaPlugin> implements CommandExecutor, TabCompleter {
 
-    public static abstract class SubCommand {
+    /**
+     * A node of a command's sub-command tree. Names and aliases are folded into a lowercase map when a node is registered, so dispatching costs one map lookup per level.
+     */
+    public static class SubCommand {
 
-        public abstract void execute(CommandContext context);
+        /**
+         * A named, typed argument of a sub-command's signature.
+         */
+        @Getter
+        @AllArgsConstructor(access = AccessLevel.PRIVATE)
+        public static class Parameter {
+
+            private final String name;
+            private final ArgumentType<?> type;
+            private final boolean optional;
+        }
+
+        @Getter
+        private final String name;
+
+        @Getter
+        private final List<String> aliases;
+
+        @Getter
+        private String permission, usage, description;
+
+        @Getter
+        private int minArgs, maxArgs = Integer.MAX_VALUE;
+
+        @Getter
+        private boolean playerOnly;
+
+        @Getter
+        private SubCommand parent;
+
+        private Consumer<CommandContext> executor;
+
+        private final List<Parameter> parameters;
+
+        private final Map<String, SubCommand> lookup;
+        private final List<SubCommand> children;
+
+        private String[] usageMessage;
+
+        public SubCommand(@NonNull String name, String... aliases) {
+            this.name = name;
+            this.aliases = Collections.unmodifiableList(Arrays.asList(aliases));
+            this.lookup = new HashMap<>();
+            this.children = new ArrayList<>();
+            this.parameters = new ArrayList<>();
+        }
+
+        public SubCommand permission(String permission) {
+            this.permission = permission;
+
+            return this;
+        }
+
+        /**
+         * Checks if a command sender may use this sub-command, the same way dispatching does.
+         * @param sender The command sender.
+         * @return Whether or not the sender has the permission of this sub-command, if any.
+         */
+        public boolean isPermitted(CommandSender sender) {
+            return permission == null || CommandContext.hasPermission(sender, permission);
+        }
+
+        /**
+         * Sets the usage of the arguments following this sub-command, ex. "&lt;feature&gt; [bool]".
+         * @param usage The usage.
+         * @return This sub-command.
+         */
+        public SubCommand usage(String usage) {
+            this.usage = usage;
+
+            return this;
+        }
+
+        /**
+         * Sets the description shown in the help. Sub-commands without a description are left out of the help.
+         * @param description The description.
+         * @return This sub-command.
+         */
+        public SubCommand description(String description) {
+            this.description = description;
+
+            return this;
+        }
+
+        /**
+         * Sets how many arguments may follow this sub-command. Executions outside of the range are answered with the usage.
+         * @param minArgs The minimum amount of arguments.
+         * @param maxArgs The maximum amount of arguments.
+         * @return This sub-command.
+         */
+        public SubCommand arity(int minArgs, int maxArgs) {
+            this.minArgs = minArgs;
+            this.maxArgs = maxArgs;
+
+            return this;
+        }
+
+        /**
+         * Appends a required argument to the signature. Arguments are parsed and validated before the sub-command executes and can be fetched with CommandContext#get.
+         * @param name The name of the argument, shown in the generated usage.
+         * @param type The type of the argument.
+         * @return This sub-command.
+         */
+        public SubCommand argument(String name, ArgumentType<?> type) {
+            return parameter(new Parameter(name, type, false));
+        }
+
+        /**
+         * Appends an optional argument to the signature. Optional arguments must follow the required ones.
+         * @param name The name of the argument, shown in the generated usage.
+         * @param type The type of the argument.
+         * @return This sub-command.
+         */
+        public SubCommand optional(String name, ArgumentType<?> type) {
+            return parameter(new Parameter(name, type, true));
+        }
+
+        private SubCommand parameter(Parameter parameter) {
+            if (!parameter.isOptional() && !parameters.isEmpty() && parameters.get(parameters.size() - 1).isOptional()) {
+                throw new IllegalArgumentException(String.format("Required argument '%s' cannot follow an optional argument.", parameter.getName()));
+            }
+
+            parameters.add(parameter);
+
+            this.maxArgs = parameters.size();
+            this.minArgs = parameter.isOptional() ? minArgs : parameters.size();
+
+            StringJoiner joiner = new StringJoiner(" ");
+
+            for (Parameter p : parameters) {
+                joiner.add(p.isOptional() ? "[" + p.getName() + "]" : "<" + p.getName() + ">");
+            }
+
+            this.usage = joiner.toString();
+
+            return this;
+        }
+
+        public List<Parameter> getParameters() {
+            return Collections.unmodifiableList(parameters);
+        }
+
+        public SubCommand playerOnly() {
+            this.playerOnly = true;
+
+            return this;
+        }
+
+        public SubCommand executor(Consumer<CommandContext> executor) {
+            this.executor = executor;
+
+            return this;
+        }
+
+        /**
+         * Registers a child sub-command, indexing its name and aliases.
+         * @param child The child.
+         * @return This sub-command.
+         */
+        public SubCommand child(@NonNull SubCommand child) {
+            index(child, child.getName());
+
+            for (String alias : child.getAliases()) {
+                index(child, alias);
+            }
+
+            child.parent = this;
+            children.add(child);
+
+            return this;
+        }
+
+        private void index(SubCommand child, String alias) {
+            SubCommand previous = lookup.putIfAbsent(alias.toLowerCase(Locale.ROOT), child);
+
+            if (previous != null) {
+                throw new IllegalArgumentException(String.format("Sub-command alias '%s' is already registered to '%s'.", alias, previous.getName()));
+            }
+        }
+
+        /**
+         * Fetches a child by its name or one of its aliases, ignoring case.
+         * @param alias The name or alias.
+         * @return The child, or null if none matches.
+         */
+        public SubCommand getChild(String alias) {
+            return lookup.get(alias.toLowerCase(Locale.ROOT));
+        }
+
+        public List<SubCommand> getChildren() {
+            return Collections.unmodifiableList(children);
+        }
+
+        /**
+         * Fetches the names leading from the root to this sub-command, ex. "feature" or "feature reset".
+         * @return The path.
+         */
+        public String getPath() {
+            if (parent == null) {
+                return "";
+            }
+
+            String path = parent.getPath();
+
+            return path.isEmpty() ? name : path + " " + name;
+        }
+
+        public void execute(CommandContext context) {
+            if (executor != null) {
+                executor.accept(context);
+            }
+        }
     }
 
+    private static final String[] PLAYER_ONLY_MESSAGE = { StringUtilities.color("&cOnly players can do that.") };
+    private static final String[] NO_PERMISSION_MESSAGE = { StringUtilities.color("&cYou do not have permission to do that.") };
+
     @Getter @NonNull
     private T plugin;
 
+    @Getter
+    private final SubCommand root;
+
+    private String[] help;
+
     public CommandBase(@NonNull T plugin) {
         this.plugin = plugin;
+        this.root = new SubCommand(getLabel());
 
         PluginCommand command = plugin.getCommand(getLabel());
 
@@ -35,9 +262,170 @@ public abstract class CommandBase<T extends JavaPlugin> implements CommandExecut
     }
 
     public abstract String getLabel();
-    public abstract void execute(CommandContext context);
     public abstract List<String> tab(CommandContext context);
 
+    /**
+     * Fetches the label shown in generated help and usage messages. Defaults to the registered label.
+     * @return The label.
+     */
+    public String getDisplayLabel() {
+        return getLabel();
+    }
+
+    /**
+     * Fetches the lines shown above the generated help.
+     * @return The header lines, uncolored.
+     */
+    public List<String> getHelpHeader() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Registers a sub-command at the root of this command's tree.
+     * @param sub The sub-command.
+     */
+    public void register(SubCommand sub) {
+        root.child(sub);
+
+        invalidateHelp();
+    }
+
+    /**
+     * Drops the cached help so it is generated again, ex. after the help header changed.
+     */
+    protected void invalidateHelp() {
+        this.help = null;
+    }
+
+    /**
+     * Fetches the help generated from the registered sub-commands, colored once and cached.
+     * @return The help lines.
+     */
+    public String[] getHelp() {
+        if (help == null) {
+            List<String> lines = new ArrayList<>(getHelpHeader());
+
+            appendHelp(root, lines);
+
+            this.help = StringUtilities.color(lines).toArray(new String[0]);
+        }
+
+        return help;
+    }
+
+    private void appendHelp(SubCommand node, List<String> lines) {
+        for (SubCommand child : node.getChildren()) {
+            if (child.getDescription() != null) {
+                lines.add("  &8> &7" + formatUsage(child) + " &8- &6" + child.getDescription());
+            }
+
+            appendHelp(child, lines);
+        }
+    }
+
+    /**
+     * Formats the uncolored usage line of a sub-command, ex. "/ppc feature &lt;feature&gt; [bool]".
+     * @param sub The sub-command.
+     * @return The usage line.
+     */
+    public String formatUsage(SubCommand sub) {
+        return "/" + getDisplayLabel() + " " + sub.getPath() + (sub.getUsage() == null ? "" : " " + sub.getUsage());
+    }
+
+    /**
+     * Fetches the usage message of a sub-command, colored once and cached.
+     * @param sub The sub-command.
+     * @return The usage message.
+     */
+    public String[] getUsageMessage(SubCommand sub) {
+        if (sub.usageMessage == null) {
+            sub.usageMessage = new String[] { StringUtilities.color("&cUsage&8: &7" + formatUsage(sub)) };
+        }
+
+        return sub.usageMessage;
+    }
+
+    protected void sendPlayerOnly(CommandContext context) {
+        context.getSender().sendMessage(PLAYER_ONLY_MESSAGE);
+    }
+
+    protected void sendNoPermission(CommandContext context) {
+        context.getSender().sendMessage(NO_PERMISSION_MESSAGE);
+    }
+
+    protected void sendUsage(CommandContext context, SubCommand sub) {
+        context.getSender().sendMessage(getUsageMessage(sub));
+    }
+
+    /**
+     * Executes the command when no registered sub-command matches. Sends the help by default.
+     * @param context The context.
+     */
+    public void execute(CommandContext context) {
+        context.getSender().sendMessage(getHelp());
+    }
+
+    /**
+     * Dispatches an execution through the sub-command tree, checking the matched node's sender, permission and arity, then parsing its signature. Flags and options are ignored while walking the tree.
+     * @param context The context.
+     */
+    public void dispatch(CommandContext context) {
+        List<String> args = context.getPositionals();
+        SubCommand node = root;
+        int depth = 0;
+
+        while (depth < args.size()) {
+            SubCommand child = node.getChild(args.get(depth));
+
+            if (child == null) {
+                break;
+            }
+
+            node = child;
+            depth++;
+        }
+
+        if (node == root) {
+            execute(context);
+
+            return;
+        }
+
+        int arity = args.size() - depth;
+
+        if (node.isPlayerOnly() && !context.isPlayer()) {
+            sendPlayerOnly(context);
+        } else if (!node.isPermitted(context.getSender())) {
+            sendNoPermission(context);
+        } else if (arity < node.getMinArgs() || arity > node.getMaxArgs()) {
+            sendUsage(context, node);
+        } else {
+            List<SubCommand.Parameter> parameters = node.getParameters();
+
+            try {
+                for (int i = 0; i < parameters.size() && depth + i < args.size(); i++) {
+                    SubCommand.Parameter parameter = parameters.get(i);
+
+                    context.setValue(parameter.getName(), parameter.getType().parse(context, args.get(depth + i)));
+                }
+            } catch (ArgumentException e) {
+                context.sendMessage(e.getMessages());
+
+                return;
+            }
+
+            node.execute(context);
+        }
+    }
+
+    /**
+     * Completes a command. Override to complete without allocating a CommandContext on every keystroke.
+     * @param sender The command sender.
+     * @param command The command.
+     * @param label The alias used.
+     * @param args The arguments typed so far.
+     * @return The completions.
+     */
     public List<String> tab(CommandSender sender, Command command, String label, String[] args) {
         return tab(new CommandContext(sender, command, label, args));
     }
@@ -46,16 +434,13 @@ public abstract class CommandBase<T extends JavaPlugin> implements CommandExecut
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         CommandContext context = new CommandContext(sender, command, label, args);
 
-        execute(context);
+        dispatch(context);
 
         return true;
     }
 
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String label, String[] args) {
-        CommandContext context = new CommandContext(sender, command, label, args);
-
-        return tab(context);
+        return tab(sender, command, label, args);
     }
 }
-
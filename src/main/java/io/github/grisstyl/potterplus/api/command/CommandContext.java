@@ -1,11 +1,10 @@
 package io.github.grisstyl.potterplus.api.command;
 
+import io.github.grisstyl.potterplus.api.misc.Placeholders;
 import io.github.grisstyl.potterplus.api.misc.StringUtilities;
-import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
+import io.github.grisstyl.potterplus.api.permission.PermissionCache;
 import lombok.Getter;
 import lombok.NonNull;
-import org.apache.commons.lang.StringUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
@@ -13,14 +12,11 @@ import org.bukkit.command.ConsoleCommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.permissions.Permission;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 
 /**
  * A wrapper class for the four arguments provided by Bukkit's CommandExecutor interface which simplifies and extends the functionality of checking, fetching, and operating on the elements of each command execution.
  */
-@AllArgsConstructor(access = AccessLevel.PROTECTED)
 public class CommandContext {
 
     /**
@@ -32,10 +28,12 @@ public class CommandContext {
         return new CommandContext(sender, null, null, null);
     }
 
+    private static final String[] NO_ARGS = new String[0];
+
     @Getter @NonNull
     private CommandSender sender;
 
-    @Getter @NonNull
+    @Getter
     private Command command;
 
     @Getter
@@ -44,6 +42,115 @@ public class CommandContext {
     @Getter
     private String[] args;
 
+    private List<String> positionals;
+    private Set<String> flags;
+    private Map<String, String> options;
+
+    private Map<String, Object> values;
+
+    protected CommandContext(@NonNull CommandSender sender, Command command, String label, String[] args) {
+        this.sender = sender;
+        this.command = command;
+        this.label = label;
+        this.args = args == null ? NO_ARGS : args;
+    }
+
+    /**
+     * Splits the arguments once into positional arguments, flags (ex. "--silent") and options (ex. "--page=2"). Flag and option names are lowercased.
+     */
+    private void parse() {
+        if (positionals != null) {
+            return;
+        }
+
+        List<String> positionals = new ArrayList<>(args.length);
+        Set<String> flags = Collections.emptySet();
+        Map<String, String> options = Collections.emptyMap();
+
+        for (String arg : args) {
+            if (arg == null) {
+                continue;
+            }
+
+            if (!arg.startsWith("--")) {
+                positionals.add(arg);
+
+                continue;
+            }
+
+            int separator = arg.indexOf('=');
+
+            if (separator < 0) {
+                if (flags.isEmpty()) {
+                    flags = new HashSet<>();
+                }
+
+                flags.add(arg.substring(2).toLowerCase(Locale.ROOT));
+            } else {
+                if (options.isEmpty()) {
+                    options = new HashMap<>();
+                }
+
+                options.put(arg.substring(2, separator).toLowerCase(Locale.ROOT), arg.substring(separator + 1));
+            }
+        }
+
+        this.positionals = Collections.unmodifiableList(positionals);
+        this.flags = flags;
+        this.options = options;
+    }
+
+    /**
+     * Fetches the arguments which are neither flags nor options.
+     * @return The positional arguments.
+     */
+    public List<String> getPositionals() {
+        parse();
+
+        return positionals;
+    }
+
+    /**
+     * Fetches a positional argument.
+     * @param index The index among the positional arguments.
+     * @return The argument, or null if there are not enough positional arguments.
+     */
+    public String getPositional(int index) {
+        List<String> positionals = getPositionals();
+
+        return index < positionals.size() ? positionals.get(index) : null;
+    }
+
+    /**
+     * Fetches the value of an option, ex. "2" for "--page=2".
+     * @param option The option name, ignoring case.
+     * @return The value, or null if the option was not supplied.
+     */
+    public String getOption(String option) {
+        parse();
+
+        return options.get(option.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Fetches an argument parsed by the signature of the executed sub-command.
+     * @param name The name of the argument.
+     * @param <V> The type of the argument.
+     * @return The parsed value, or null if the argument is optional and was not supplied.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(String name) {
+        return values == null ? null : (V) values.get(name);
+    }
+
+    void setValue(String name, Object value) {
+        if (values == null) {
+            values = new HashMap<>();
+        }
+
+        values.put(name, value);
+    }
+
     /**
      * Checks if the context's command sender is a player.
      * @return Whether or not the context's command sender is a player.
@@ -106,12 +213,26 @@ public class CommandContext {
     }
 
     /**
-     * Checks if the command sender of this context has a permission.
+     * Checks if the command sender of this context has a permission. Decisions for players are served from the PermissionCache.
      * @param permission The permission to check.
      * @return Whether or not the command sender of this context has the supplied permission.
      */
     public boolean hasPermission(String permission) {
-        return hasPermission(new Permission(permission));
+        return hasPermission(sender, permission);
+    }
+
+    /**
+     * Checks if a command sender has a permission. Decisions for players are served from the PermissionCache.
+     * @param sender The command sender.
+     * @param permission The permission to check.
+     * @return Whether or not the command sender has the supplied permission.
+     */
+    public static boolean hasPermission(CommandSender sender, String permission) {
+        if (sender instanceof Player) {
+            return PermissionCache.has((Player) sender, permission);
+        }
+
+        return sender.hasPermission(permission);
     }
 
     /**
@@ -156,23 +277,18 @@ public class CommandContext {
     }
 
     /**
-     * Concatenates a phrase with spaces between each argument beginning at the supplied index.
-     * @param startingArgs The argument to start building the phrase at.
+     * Concatenates a phrase with spaces between each positional argument beginning at the supplied index. Flags and options are left out, the same way getPositionals does.
+     * @param startingArgs The positional argument to start building the phrase at.
      * @return The phrase created, trimmed.
      */
     public String getMessage(int startingArgs) {
-        if (args == null  || args.length < startingArgs) {
-            throw new IndexOutOfBoundsException("Unchecked call of CommandContext#getMessage on the arguments. Verify all arguments are present.");
-        }
-
-        StringBuilder builder = new StringBuilder();
+        List<String> positionals = getPositionals();
 
-        for (int i = startingArgs; i < args.length; i++) {
-            if (args[i].startsWith("--")) continue;
-            builder.append(args[i]).append(" ");
+        if (positionals.size() < startingArgs) {
+            throw new IndexOutOfBoundsException("Unchecked call of CommandContext#getMessage on the arguments. Verify all arguments are present.");
         }
 
-        return builder.toString().trim();
+        return String.join(" ", positionals.subList(startingArgs, positionals.size())).trim();
     }
 
     /**
@@ -211,23 +327,30 @@ public class CommandContext {
         performCommand(StringUtilities.replace(command, replace));
     }
 
+    /**
+     * Fills the $placeholders of a command, then executes/performs it as performCommand(String) does.
+     * @param command The command to execute/perform, ex. "give $player diamond".
+     * @param lookup Supplies values by name, without the $.
+     */
+    public void performCommand(String command, Placeholders.Lookup lookup) {
+        performCommand(Placeholders.format(command, lookup));
+    }
+
     /**
      * Checks if the supplied flag was used in the current context.
      * @param flag The flag to check for.
      * @return Whether or not the flag was present in the current context.
      */
     public boolean hasFlag(String flag) {
-        if (getArgs() == null || getArgs().length <= 0) return false;
+        parse();
 
-        if (!flag.startsWith("--")) {
-            flag = "--" + flag;
+        if (flag.startsWith("--")) {
+            flag = flag.substring(2);
         }
 
-        for (String str : getArgs()) {
-            if (StringUtils.containsIgnoreCase(str, flag)) return true;
-        }
+        flag = flag.toLowerCase(Locale.ROOT);
 
-        return false;
+        return flags.contains(flag) || options.containsKey(flag);
     }
 
     public void delegate(CommandBase.SubCommand sub) {
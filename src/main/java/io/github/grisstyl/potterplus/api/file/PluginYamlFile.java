@@ -1,6 +1,7 @@
 package io.github.grisstyl.potterplus.api.file;
 
 import io.github.grisstyl.potterplus.api.misc.PluginLogger;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -70,16 +71,29 @@ public class PluginYamlFile<T extends JavaPlugin> extends YamlFile {
         }
     }
 
+    @Override
+    public FileConfiguration parse() throws IOException, InvalidConfigurationException {
+        FileConfiguration configuration = super.parse();
+        InputStream is = plugin.getResource(getFileName());
+
+        if (is != null) {
+            try (Reader defConfigStream = new InputStreamReader(is, StandardCharsets.UTF_8)) {
+                configuration.setDefaults(YamlConfiguration.loadConfiguration(defConfigStream));
+            }
+        }
+
+        return configuration;
+    }
+
+    /**
+     * Queues the file to be saved off the main thread.
+     */
     public void save() {
         if (file == null || fileConfiguration == null) {
             return;
         }
 
-        try {
-            fileConfiguration.save(file);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        YamlSaveQueue.shared().save(file, fileConfiguration);
     }
 
     public void saveDefault() {
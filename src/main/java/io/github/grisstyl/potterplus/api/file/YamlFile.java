@@ -47,4 +47,28 @@ public class YamlFile {
                     .print();
         }
     }
+
+    /**
+     * Parses the file from disk into a new FileConfiguration without modifying this instance. Safe to call off the main thread.
+     * @return The parsed configuration.
+     * @throws IOException If the file could not be read.
+     * @throws InvalidConfigurationException If the file is not valid YAML.
+     */
+    public FileConfiguration parse() throws IOException, InvalidConfigurationException {
+        YamlConfiguration configuration = new YamlConfiguration();
+
+        if (file.exists()) {
+            configuration.load(file);
+        }
+
+        return configuration;
+    }
+
+    /**
+     * Swaps in a configuration previously returned by parse().
+     * @param configuration The configuration.
+     */
+    public void apply(FileConfiguration configuration) {
+        this.fileConfiguration = configuration;
+    }
 }
@@ -0,0 +1,227 @@
+package io.github.grisstyl.potterplus.api.file;
+
+import io.github.grisstyl.potterplus.api.misc.PluginLogger;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Saves YAML configurations off the main thread. Configurations are copied on the calling thread, then serialized and written on a background thread through a temporary file and an atomic rename. Saves of the same file within the coalesce window are merged into a single write, and writes whose contents match the file on disk are skipped.
+ */
+public class YamlSaveQueue {
+
+    private static final YamlSaveQueue SHARED = new YamlSaveQueue(250L);
+
+    /**
+     * Fetches the queue shared by every YAML file of the plugin.
+     * @return The shared queue.
+     */
+    public static YamlSaveQueue shared() {
+        return SHARED;
+    }
+
+    private final long coalesceMillis;
+
+    private final Map<File, YamlConfiguration> pending;
+    private final Map<File, String> written;
+
+    private ScheduledExecutorService executor;
+
+    public YamlSaveQueue(long coalesceMillis) {
+        this.coalesceMillis = coalesceMillis;
+        this.pending = new HashMap<>();
+        this.written = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Queues a configuration to be written to a file. Must be called from the thread that owns the configuration.
+     * @param file The file to write to.
+     * @param configuration The configuration to save.
+     */
+    public void save(File file, FileConfiguration configuration) {
+        YamlConfiguration snapshot = snapshot(configuration);
+
+        synchronized (pending) {
+            if (pending.put(file, snapshot) == null) {
+                executor().schedule(() -> write(file), coalesceMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Fetches the contents last written to or found on disk for a file by this queue.
+     * @param file The file.
+     * @return The contents, or null if the file has not been saved through this queue.
+     */
+    public String getWrittenContents(File file) {
+        return written.get(file);
+    }
+
+    /**
+     * Writes every pending save and waits for the writes to complete. Called when the plugin is disabled.
+     */
+    public void flush() {
+        ScheduledExecutorService executor;
+
+        synchronized (pending) {
+            executor = this.executor;
+
+            this.executor = null;
+        }
+
+        if (executor == null) {
+            return;
+        }
+
+        executor.shutdown();
+
+        try {
+            if (!executor.awaitTermination(10L, TimeUnit.SECONDS)) {
+                PluginLogger.atWarn()
+                        .with("Timed out while waiting for YAML files to be saved.")
+                        .print();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<File> remaining;
+
+        synchronized (pending) {
+            remaining = new ArrayList<>(pending.keySet());
+        }
+
+        for (File file : remaining) {
+            write(file);
+        }
+    }
+
+    private ScheduledExecutorService executor() {
+        if (executor == null) {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "PotterPlus YAML Writer");
+
+                thread.setDaemon(true);
+
+                return thread;
+            });
+
+            executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+            this.executor = executor;
+        }
+
+        return executor;
+    }
+
+    private void write(File file) {
+        YamlConfiguration snapshot;
+
+        synchronized (pending) {
+            snapshot = pending.remove(file);
+        }
+
+        if (snapshot == null) {
+            return;
+        }
+
+        String contents = snapshot.saveToString();
+
+        try {
+            String previous = written.get(file);
+
+            if (previous == null && file.exists()) {
+                previous = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            }
+
+            if (contents.equals(previous)) {
+                written.put(file, contents);
+
+                return;
+            }
+
+            File parent = file.getAbsoluteFile().getParentFile();
+
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                throw new IOException("Could not create " + parent);
+            }
+
+            Path target = file.toPath();
+            Path temp = target.resolveSibling(file.getName() + ".tmp");
+
+            Files.write(temp, contents.getBytes(StandardCharsets.UTF_8));
+
+            written.put(file, contents);
+
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            written.remove(file);
+
+            PluginLogger.atSevere()
+                    .with("Could not save '%s': %s", file.getName(), e.getMessage())
+                    .print();
+        }
+    }
+
+    /**
+     * Copies a configuration so it can be serialized on another thread while the original keeps being modified.
+     * @param configuration The configuration.
+     * @return The copy.
+     */
+    public static YamlConfiguration snapshot(FileConfiguration configuration) {
+        YamlConfiguration copy = new YamlConfiguration();
+
+        copy.options().header(configuration.options().header());
+        copy.options().copyHeader(configuration.options().copyHeader());
+
+        for (Map.Entry<String, Object> entry : configuration.getValues(true).entrySet()) {
+            Object value = entry.getValue();
+
+            if (value instanceof ConfigurationSection) {
+                if (!copy.isConfigurationSection(entry.getKey())) {
+                    copy.createSection(entry.getKey());
+                }
+            } else {
+                copy.set(entry.getKey(), copyValue(value));
+            }
+        }
+
+        return copy;
+    }
+
+    private static Object copyValue(Object value) {
+        if (value instanceof List) {
+            List<Object> list = new ArrayList<>();
+
+            for (Object element : (List<?>) value) {
+                list.add(copyValue(element));
+            }
+
+            return list;
+        } else if (value instanceof Map) {
+            Map<Object, Object> map = new LinkedHashMap<>();
+
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(entry.getKey(), copyValue(entry.getValue()));
+            }
+
+            return map;
+        }
+
+        return value;
+    }
+}
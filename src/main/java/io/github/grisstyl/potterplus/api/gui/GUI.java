@@ -1,7 +1,6 @@
 package io.github.grisstyl.potterplus.api.gui;
 
 import lombok.Getter;
-import lombok.Setter;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.HumanEntity;
@@ -14,8 +13,8 @@ import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.plugin.java.JavaPlugin;
 import io.github.grisstyl.potterplus.api.gui.button.GUIButton;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * A basic custom inventory setup.
@@ -73,8 +72,24 @@ public class GUI implements InventoryHolder {
     @Getter
     private int size;
 
-    @Getter @Setter
-    private Map<Integer, GUIButton> items;
+    /**
+     * The buttons by slot, grown as needed. Slots past the size of the inventory are kept for subclasses such as paginated GUIs.
+     */
+    private GUIButton[] slots;
+
+    /**
+     * The highest occupied slot, or -1 if there are no buttons.
+     */
+    @Getter
+    private int highestSlot;
+
+    /**
+     * The number of occupied slots.
+     */
+    @Getter
+    private int buttonCount;
+
+    private final Map<Integer, GUIButton> items = new SlotMap();
 
     public void setTitle(String title) {
         this.title = ChatColor.translateAlternateColorCodes('&', title);
@@ -83,51 +98,146 @@ public class GUI implements InventoryHolder {
     public GUI(String title, int size) {
         this.title = ChatColor.translateAlternateColorCodes('&', title);
         this.size = size;
-        this.items = new HashMap<>();
+        this.slots = new GUIButton[Math.max(9, size)];
+        this.highestSlot = -1;
     }
 
     public GUI(String name) {
         this(name, 9);
     }
 
-    public void addButton(GUIButton button) {
-        int slot = 0;
+    /**
+     * Fetches a live view of the buttons by slot. Changes to the view write through to this GUI.
+     * @return The view.
+     */
+    public Map<Integer, GUIButton> getItems() {
+        return items;
+    }
 
-        if (!items.isEmpty()) {
-            int highestSlot = -1;
+    /**
+     * Replaces every button with the buttons of a map.
+     * @param items The buttons by slot.
+     */
+    public void setItems(Map<Integer, GUIButton> items) {
+        clearButtons();
 
-            for (int itemSlot : items.keySet()) {
-                if (itemSlot > highestSlot) {
-                    highestSlot = itemSlot;
+        if (items != null) {
+            for (Map.Entry<Integer, GUIButton> entry : items.entrySet()) {
+                if (entry.getKey() != null) {
+                    setButton(entry.getKey(), entry.getValue());
                 }
             }
-
-            slot = highestSlot + 1;
         }
+    }
 
-        items.put(slot, button);
+    public void addButton(GUIButton button) {
+        setButton(highestSlot + 1, button);
     }
 
     public void setButton(int slot, GUIButton button) {
-        items.put(slot, button);
+        put(slot, button);
     }
 
     public void removeButton(int slot) {
-        items.remove(slot);
+        put(slot, null);
     }
 
     public void clearButtons() {
-        this.items.clear();
+        Arrays.fill(slots, 0, highestSlot + 1, null);
+
+        this.highestSlot = -1;
+        this.buttonCount = 0;
+
+        invalidate();
+    }
+
+    /**
+     * Called when the button of a slot changed, for subclasses which cache rendered items.
+     * @param slot The slot.
+     */
+    protected void invalidateSlot(int slot) {
+
+    }
+
+    /**
+     * Drops anything rendered from the buttons, ex. after a button's item was changed in place.
+     */
+    public void invalidate() {
+
     }
 
     public GUIButton getButton(int slot) {
         if (slot < getSize()) {
-            return items.get(slot);
+            return getSlot(slot);
         }
 
         return null;
     }
 
+    /**
+     * Fetches the button of a slot, including slots past the size of the inventory.
+     * @param slot The slot.
+     * @return The button, or null.
+     */
+    public GUIButton getSlot(int slot) {
+        return slot >= 0 && slot < slots.length ? slots[slot] : null;
+    }
+
+    /**
+     * Stores or removes a button, keeping the high-water mark and occupancy count up to date.
+     * @return The previous button of the slot.
+     */
+    private GUIButton put(int slot, GUIButton button) {
+        if (slot < 0) {
+            throw new IllegalArgumentException("Slot cannot be negative.");
+        }
+
+        if (slot >= slots.length) {
+            if (button == null) {
+                return null;
+            }
+
+            slots = Arrays.copyOf(slots, Math.max(slot + 1, slots.length * 2));
+        }
+
+        GUIButton previous = slots[slot];
+
+        slots[slot] = button;
+
+        if (previous != button) {
+            invalidateSlot(slot);
+        }
+
+        if (previous == null && button != null) {
+            buttonCount++;
+
+            if (slot > highestSlot) {
+                highestSlot = slot;
+            }
+        } else if (previous != null && button == null) {
+            buttonCount--;
+
+            // Only removing the highest button moves the mark, down to the next occupied slot.
+            while (highestSlot >= 0 && slots[highestSlot] == null) {
+                highestSlot--;
+            }
+        }
+
+        return previous;
+    }
+
+    /**
+     * Performs an action for every button of this GUI.
+     * @param action The action.
+     */
+    public void forEachButton(Consumer<GUIButton> action) {
+        for (int slot = 0; slot <= highestSlot; slot++) {
+            if (slots[slot] != null) {
+                action.accept(slots[slot]);
+            }
+        }
+    }
+
     public void refreshInventory(HumanEntity holder) {
         holder.closeInventory();
         holder.openInventory(getInventory());
@@ -140,14 +250,9 @@ public class GUI implements InventoryHolder {
     public Inventory getInventory() {
         Inventory inventory = Bukkit.createInventory(this, getSize(), getTitle());
 
-        if (items != null && !items.isEmpty()) {
-            for (Map.Entry<Integer, GUIButton> entry : getItems().entrySet()) {
-                Integer slot = entry.getKey();
-                GUIButton button = entry.getValue();
-
-                if (slot == null || button == null) continue;
-
-                inventory.setItem(slot, button.getItem());
+        for (int slot = 0; slot <= Math.min(highestSlot, getSize() - 1); slot++) {
+            if (slots[slot] != null) {
+                inventory.setItem(slot, slots[slot].getItem());
             }
         }
 
@@ -157,4 +262,96 @@ public class GUI implements InventoryHolder {
     public void onClose(InventoryCloseEvent event) {
 
     }
+
+    /**
+     * A map view over the slot table, with constant time lookups and writes.
+     */
+    private class SlotMap extends AbstractMap<Integer, GUIButton> {
+
+        @Override
+        public int size() {
+            return buttonCount;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public GUIButton get(Object key) {
+            return key instanceof Integer ? getSlot((Integer) key) : null;
+        }
+
+        @Override
+        public GUIButton put(Integer key, GUIButton value) {
+            return GUI.this.put(key, value);
+        }
+
+        @Override
+        public GUIButton remove(Object key) {
+            return key instanceof Integer && (Integer) key >= 0 ? GUI.this.put((Integer) key, null) : null;
+        }
+
+        @Override
+        public void clear() {
+            clearButtons();
+        }
+
+        @Override
+        public Set<Entry<Integer, GUIButton>> entrySet() {
+            return new AbstractSet<Entry<Integer, GUIButton>>() {
+
+                @Override
+                public int size() {
+                    return buttonCount;
+                }
+
+                @Override
+                public Iterator<Entry<Integer, GUIButton>> iterator() {
+                    return new Iterator<Entry<Integer, GUIButton>>() {
+
+                        private int next = advance(0);
+                        private int last = -1;
+
+                        private int advance(int from) {
+                            while (from <= highestSlot && slots[from] == null) {
+                                from++;
+                            }
+
+                            return from;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next <= highestSlot;
+                        }
+
+                        @Override
+                        public Entry<Integer, GUIButton> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+
+                            last = next;
+                            next = advance(next + 1);
+
+                            return new SimpleImmutableEntry<>(last, slots[last]);
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (last < 0) {
+                                throw new IllegalStateException();
+                            }
+
+                            GUI.this.put(last, null);
+
+                            last = -1;
+                        }
+                    };
+                }
+            };
+        }
+    }
 }
@@ -1,18 +1,21 @@
 package io.github.grisstyl.potterplus.api.gui;
 
 import lombok.Getter;
-import lombok.Setter;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
+import org.bukkit.entity.HumanEntity;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
 import io.github.grisstyl.potterplus.api.gui.button.AutoGUIButton;
+import io.github.grisstyl.potterplus.api.gui.button.ButtonListener;
 import io.github.grisstyl.potterplus.api.gui.button.GUIButton;
+import io.github.grisstyl.potterplus.api.misc.ColorCache;
 import io.github.grisstyl.potterplus.api.misc.ItemStackBuilder;
-import io.github.grisstyl.potterplus.api.misc.StringUtilities;
+import io.github.grisstyl.potterplus.api.misc.MessageTemplate;
+import io.github.grisstyl.potterplus.api.misc.Placeholders;
 
 import java.util.*;
-
-import static io.github.grisstyl.potterplus.api.misc.StringUtilities.replaceMap;
+import java.util.function.Consumer;
 
 /**
  * An extension of a basic GUI which allows for items to be paginated across as many pages as necessary along with a persistent toolbar.
@@ -21,22 +24,84 @@ public class PaginatedGUI extends GUI {
 
     public static class PaginatedGUISettings {
 
-        @Setter
         private String pageNavNameFormat = "&7Page &e$currentPage&8/&e$maxPage";
 
-        @Setter
         private List<String> pageNavLoreFormat = Arrays.asList("&8> &6Left-click &7to go to the previous page", "&8> &6Right-click &7to go to the next page");
 
+        private MessageTemplate pageNavNameTemplate;
+        private List<MessageTemplate> pageNavLoreTemplates;
+
+        /**
+         * Bumped whenever a format changes, so GUIs know to drop their rendered pages.
+         */
+        private int version;
+
+        public void setPageNavNameFormat(String pageNavNameFormat) {
+            this.pageNavNameFormat = pageNavNameFormat;
+            this.pageNavNameTemplate = null;
+            this.version++;
+        }
+
+        public void setPageNavLoreFormat(List<String> pageNavLoreFormat) {
+            this.pageNavLoreFormat = pageNavLoreFormat;
+            this.pageNavLoreTemplates = null;
+            this.version++;
+        }
+
         public String getPageNavNameFormat() {
-            return StringUtilities.color(pageNavNameFormat);
+            return ColorCache.shared().color(pageNavNameFormat);
         }
 
         public List<String> getPageNavLoreFormat() {
-            return StringUtilities.color(pageNavLoreFormat);
+            return ColorCache.shared().color(pageNavLoreFormat);
+        }
+
+        /**
+         * Fetches the page navigation name, compiled once per format.
+         * @return The template.
+         */
+        public MessageTemplate getPageNavNameTemplate() {
+            if (pageNavNameTemplate == null) {
+                pageNavNameTemplate = MessageTemplate.compile(pageNavNameFormat);
+            }
+
+            return pageNavNameTemplate;
+        }
+
+        /**
+         * Fetches the page navigation lore, compiled once per format.
+         * @return The templates, one per line.
+         */
+        public List<MessageTemplate> getPageNavLoreTemplates() {
+            if (pageNavLoreTemplates == null) {
+                List<MessageTemplate> templates = new ArrayList<>(pageNavLoreFormat.size());
+
+                for (String line : pageNavLoreFormat) {
+                    templates.add(MessageTemplate.compile(line));
+                }
+
+                pageNavLoreTemplates = templates;
+            }
+
+            return pageNavLoreTemplates;
         }
     }
 
-    @Getter @Setter
+    /**
+     * A rendered page along with the button rendered over the fourth toolbar slot, which isn't part of the configured toolbar.
+     */
+    private static final class Page {
+
+        private final ItemStack[] contents;
+        private final GUIButton navigation;
+
+        private Page(ItemStack[] contents, GUIButton navigation) {
+            this.contents = contents;
+            this.navigation = navigation;
+        }
+    }
+
+    @Getter
     private Map<Integer, GUIButton> toolbarItems;
 
     @Getter
@@ -45,6 +110,24 @@ public class PaginatedGUI extends GUI {
     @Getter
     private PaginatedGUISettings settings;
 
+    /**
+     * The rendered pages by index, or null where a page needs to be rendered again.
+     */
+    private Page[] pages = new Page[1];
+
+    /**
+     * The page last rendered to a viewer, whose navigation button answers clicks on the toolbar.
+     */
+    private Page current;
+
+    /**
+     * The max page and settings version the cached pages were rendered with. Either changing affects the navigation of every page.
+     */
+    private int renderedMaxPage = -1;
+    private int renderedSettingsVersion = -1;
+
+    private ButtonListener navigationListener;
+
     public PaginatedGUI(String name) {
         super(name, 54);
 
@@ -56,7 +139,9 @@ public class PaginatedGUI extends GUI {
     @Override
     public GUIButton getButton(int slot) {
         if (slot < 45) {
-            return getItems().get(slot);
+            return getSlot(currentPage * 45 + slot);
+        } else if (slot == 49 && current != null && current.navigation != null) {
+            return current.navigation;
         } else {
             return getToolbarItems().get(slot - 45);
         }
@@ -68,6 +153,8 @@ public class PaginatedGUI extends GUI {
         }
 
         toolbarItems.put(slot, button);
+
+        invalidate();
     }
 
     public void removeToolbarItem(int slot) {
@@ -76,6 +163,43 @@ public class PaginatedGUI extends GUI {
         }
 
         toolbarItems.remove(slot);
+
+        invalidate();
+    }
+
+    public void setToolbarItems(Map<Integer, GUIButton> toolbarItems) {
+        this.toolbarItems = toolbarItems;
+
+        invalidate();
+    }
+
+    @Override
+    protected void invalidateSlot(int slot) {
+        int page = slot / 45;
+
+        if (page < pages.length) {
+            pages[page] = null;
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        Arrays.fill(pages, null);
+    }
+
+    @Override
+    public void forEachButton(Consumer<GUIButton> action) {
+        super.forEachButton(action);
+
+        for (GUIButton button : toolbarItems.values()) {
+            if (button != null) {
+                action.accept(button);
+            }
+        }
+
+        if (current != null && current.navigation != null) {
+            action.accept(current.navigation);
+        }
     }
 
     public boolean nextPage() {
@@ -95,32 +219,39 @@ public class PaginatedGUI extends GUI {
     }
 
     public int getMaxPage() {
-        int slot = 0;
-
-        for (int nextSlot : getItems().keySet()) {
-            if (nextSlot > slot) {
-                slot = nextSlot;
-            }
-        }
-
-        double highestSlot = slot + 1;
-
-        return (int) Math.ceil(highestSlot / (double) 45) - 1;
+        return Math.max(getHighestSlot(), 0) / 45;
     }
 
     public void resetPage() {
         this.currentPage = 0;
-        this.setItems(new HashMap<>());
+        this.clearButtons();
     }
 
     public ItemStackBuilder createNavigation(int currentPage, int maxPage, boolean controls) {
-        Map<String, String> replace = replaceMap("$currentPage", String.valueOf(currentPage), "$maxPage", String.valueOf(maxPage));
+        Placeholders.Lookup lookup = key -> {
+            switch (key) {
+                case "currentPage":
+                    return currentPage;
+                case "maxPage":
+                    return maxPage;
+                default:
+                    return null;
+            }
+        };
+
         ItemStackBuilder is = ItemStackBuilder
                 .start(Material.NAME_TAG)
-                .name(StringUtilities.replace(settings.getPageNavNameFormat(), replace));
+                .name(settings.getPageNavNameTemplate().format(lookup));
 
         if (controls) {
-            is.lore(StringUtilities.replace(settings.getPageNavLoreFormat(), replace));
+            List<MessageTemplate> templates = settings.getPageNavLoreTemplates();
+            List<String> lore = new ArrayList<>(templates.size());
+
+            for (MessageTemplate template : templates) {
+                lore.add(template.format(lookup));
+            }
+
+            is.lore(lore);
         }
 
         return is;
@@ -128,15 +259,56 @@ public class PaginatedGUI extends GUI {
 
     public void clearToolbar() {
         this.toolbarItems = new HashMap<>();
+
+        invalidate();
     }
 
-    @Override
-    public Inventory getInventory() {
-        Inventory inventory = Bukkit.createInventory(this, getSize(), getTitle());
+    /**
+     * Renders the current page along with the toolbar. Pages are rendered once and cached until a button of the page, the toolbar, the max page or the settings change.
+     * @return A copy of the items by raw slot.
+     */
+    public ItemStack[] renderPage() {
+        return page().contents.clone();
+    }
 
-        GUIButton nav = new GUIButton(this.createNavigation(getCurrentPage() + 1, getMaxPage() + 1, true));
+    /**
+     * Fetches the cached rendering of the current page, rendering it if needed.
+     * @return The page. Its items must not be modified.
+     */
+    private Page page() {
+        int maxPage = getMaxPage();
+
+        if (maxPage != renderedMaxPage || settings.version != renderedSettingsVersion) {
+            this.pages = new Page[maxPage + 1];
+            this.renderedMaxPage = maxPage;
+            this.renderedSettingsVersion = settings.version;
+        }
+
+        Page page;
+
+        if (currentPage >= pages.length) {
+            page = render();
+        } else {
+            page = pages[currentPage];
 
-        nav.setListener(event -> {
+            if (page == null) {
+                page = render();
+
+                pages[currentPage] = page;
+            }
+        }
+
+        this.current = page;
+
+        return page;
+    }
+
+    private ButtonListener getNavigationListener() {
+        if (navigationListener != null) {
+            return navigationListener;
+        }
+
+        navigationListener = event -> {
             event.setCancelled(true);
 
             PaginatedGUI menu = (PaginatedGUI) event.getInventory().getHolder();
@@ -157,41 +329,90 @@ public class PaginatedGUI extends GUI {
                     this.refreshInventory(event.getWhoClicked());
                     break;
             }
-        });
+        };
 
-        if (getMaxPage() > 0) {
-            toolbarItems.put(4, nav);
+        return navigationListener;
+    }
+
+    /**
+     * Renders the current page. The navigation is rendered over the configured toolbar rather than into it, so the toolbar stays as it was set.
+     */
+    private Page render() {
+        ItemStack[] contents = new ItemStack[getSize()];
+        int first = currentPage * 45;
+        int last = Math.min(getHighestSlot(), first + 44);
+
+        for (int key = first; key <= last; key++) {
+            GUIButton button = getSlot(key);
+
+            if (button != null) {
+                contents[key - first] = button.getItem();
+            }
         }
 
-        if (getItems() != null && !getItems().isEmpty()) {
-            int counter = 0;
+        for (Map.Entry<Integer, GUIButton> entry : toolbarItems.entrySet()) {
+            contents[entry.getKey() + 45] = entry.getValue().getItem();
+        }
 
-            for (int key = (currentPage * 45); key <= Collections.max(getItems().keySet()); key++) {
-                if (counter >= 45) {
-                    break;
-                }
+        GUIButton navigation = null;
 
-                if (getItems().containsKey(key)) {
-                    inventory.setItem(counter, getItems().get(key).getItem());
-                }
+        if (getMaxPage() > 0) {
+            navigation = new GUIButton(this.createNavigation(getCurrentPage() + 1, getMaxPage() + 1, true));
 
-                counter++;
-            }
+            navigation.setListener(getNavigationListener());
         }
 
-        for (int toolbarItem : toolbarItems.keySet()) {
-            int rawSlot = toolbarItem + 45;
+        if (contents[44] == null && getCurrentPage() == 0) {
+            navigation = new AutoGUIButton(this.createNavigation(1, 1, false));
+        }
 
-            inventory.setItem(rawSlot, toolbarItems.get(toolbarItem).getItem());
+        if (navigation != null) {
+            contents[49] = navigation.getItem();
         }
 
-        if (inventory.getItem(44) == null && getCurrentPage() == 0) {
-            ItemStackBuilder pageNav = this.createNavigation(1, 1, false);
+        return new Page(contents, navigation);
+    }
+
+    /**
+     * Rewrites the content and toolbar slots of an open inventory with the current page, skipping slots which didn't change. Unlike reopening the inventory, this keeps the cursor in place and fires no close event.
+     * @param inventory The inventory of this GUI.
+     */
+    public void renderPage(Inventory inventory) {
+        ItemStack[] contents = page().contents;
+
+        for (int slot = 0; slot < contents.length; slot++) {
+            ItemStack current = inventory.getItem(slot);
+
+            if (current != null && current.getType() == Material.AIR) {
+                current = null;
+            }
 
-            inventory.setItem(49, pageNav.build());
+            if (!Objects.equals(current, contents[slot])) {
+                inventory.setItem(slot, contents[slot]);
+            }
+        }
+    }
 
-            setToolbarItem(4, new AutoGUIButton(pageNav));
+    /**
+     * Switches the open inventory of a viewer to the current page in place, only reopening it if the viewer isn't looking at this GUI.
+     * @param holder The viewer.
+     */
+    @Override
+    public void refreshInventory(HumanEntity holder) {
+        Inventory inventory = holder.getOpenInventory().getTopInventory();
+
+        if (inventory.getHolder() == this && inventory.getSize() == getSize()) {
+            renderPage(inventory);
+        } else {
+            super.refreshInventory(holder);
         }
+    }
+
+    @Override
+    public Inventory getInventory() {
+        Inventory inventory = Bukkit.createInventory(this, getSize(), getTitle());
+
+        inventory.setContents(renderPage());
 
         return inventory;
     }
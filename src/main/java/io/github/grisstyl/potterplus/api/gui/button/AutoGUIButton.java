@@ -1,5 +1,6 @@
 package io.github.grisstyl.potterplus.api.gui.button;
 
+import io.github.grisstyl.potterplus.api.misc.ItemStackBuilder;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.function.Supplier;
@@ -18,4 +19,8 @@ public class AutoGUIButton extends GUIButton {
     public AutoGUIButton(Supplier<ItemStack> item) {
         this(item.get());
     }
+
+    public AutoGUIButton(ItemStackBuilder item) {
+        this(item.build(true));
+    }
 }
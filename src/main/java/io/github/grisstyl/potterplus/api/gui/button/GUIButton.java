@@ -1,5 +1,6 @@
 package io.github.grisstyl.potterplus.api.gui.button;
 
+import io.github.grisstyl.potterplus.api.misc.ItemStackBuilder;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -23,4 +24,12 @@ public class GUIButton {
     public GUIButton(Supplier<ItemStack> item) {
         this(item.get());
     }
+
+    /**
+     * Creates a button from a builder. A skull whose owner is still being resolved shows a placeholder head until the owner arrives.
+     * @param item The builder of the item.
+     */
+    public GUIButton(ItemStackBuilder item) {
+        this(item.build(true));
+    }
 }
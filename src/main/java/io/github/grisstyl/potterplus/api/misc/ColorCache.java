@@ -0,0 +1,124 @@
+package io.github.grisstyl.potterplus.api.misc;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import java.util.List;
+
+/**
+ * A bounded, concurrent cache from raw to colored Strings and lore lists, evicting the least recently used entries once its weight cap is reached. Colored Strings are interned, so identical lore across many ItemStacks shares the same String instances.
+ */
+public class ColorCache {
+
+    /**
+     * Approximate bytes held by a cache entry besides its characters.
+     */
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private static final ColorCache SHARED = new ColorCache(2L * 1024L * 1024L);
+
+    /**
+     * Fetches the cache shared by the GUI and item builders of the plugin, capped at roughly 2 MiB.
+     * @return The shared cache.
+     */
+    public static ColorCache shared() {
+        return SHARED;
+    }
+
+    private final Cache<String, String> strings;
+    private final Cache<List<String>, List<String>> lists;
+
+    private final Interner<String> interner;
+
+    /**
+     * Creates a cache.
+     * @param maximumBytes The approximate memory cap, split evenly between Strings and lore lists.
+     */
+    public ColorCache(long maximumBytes) {
+        this.strings = CacheBuilder.newBuilder()
+                .maximumWeight(maximumBytes / 2)
+                .weigher((String raw, String colored) -> ENTRY_OVERHEAD + 2 * (raw.length() + colored.length()))
+                .recordStats()
+                .build();
+        this.lists = CacheBuilder.newBuilder()
+                .maximumWeight(maximumBytes / 2)
+                .weigher((List<String> raw, List<String> colored) -> {
+                    int weight = ENTRY_OVERHEAD;
+
+                    // Colored lines are interned and shared, so only count the raw characters and references.
+                    for (String line : raw) {
+                        weight += 2 * line.length() + 8;
+                    }
+
+                    return weight + 8 * colored.size();
+                })
+                .recordStats()
+                .build();
+        this.interner = Interners.newWeakInterner();
+    }
+
+    /**
+     * Colors a String through the cache.
+     * @param raw The raw String.
+     * @return The colored, interned String.
+     */
+    public String color(String raw) {
+        if (raw == null) {
+            throw new IllegalArgumentException("Cannot translate null text");
+        }
+
+        String colored = strings.getIfPresent(raw);
+
+        if (colored == null) {
+            colored = interner.intern(StringUtilities.color(raw));
+
+            strings.put(raw, colored);
+        }
+
+        return colored;
+    }
+
+    /**
+     * Colors a List of Strings through the cache.
+     * @param raw The raw Strings.
+     * @return An immutable List of the colored, interned Strings.
+     */
+    public List<String> color(List<String> raw) {
+        List<String> colored = lists.getIfPresent(raw);
+
+        if (colored == null) {
+            ImmutableList.Builder<String> builder = ImmutableList.builder();
+
+            for (String line : raw) {
+                builder.add(color(line));
+            }
+
+            colored = builder.build();
+
+            lists.put(ImmutableList.copyOf(raw), colored);
+        }
+
+        return colored;
+    }
+
+    public CacheStats getStringStats() {
+        return strings.stats();
+    }
+
+    public CacheStats getListStats() {
+        return lists.stats();
+    }
+
+    public long size() {
+        return strings.size() + lists.size();
+    }
+
+    public void invalidateAll() {
+        strings.invalidateAll();
+        lists.invalidateAll();
+    }
+}
@@ -1,26 +1,95 @@
 package io.github.grisstyl.potterplus.api.misc;
 
-import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 
-import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
 
 /**
  * Copyright (c) 2013-2020 Tyler Grissom
  */
 public class FriendlyBooleans {
 
-    private static List<String> trueValues = ImmutableList.of("true", "yes", "enable");
-    private static List<String> falseValues = ImmutableList.of("false", "no", "disable");
+    /**
+     * A state typed by a user. TOGGLE inverts the current value.
+     */
+    public enum State {
 
-    public static boolean isFriendlyBoolean(String s) {
-        s = s.toLowerCase();
+        TRUE, FALSE, TOGGLE;
 
-        return trueValues.contains(s) || falseValues.contains(s);
+        public boolean apply(boolean current) {
+            return this == TOGGLE ? !current : this == TRUE;
+        }
     }
 
-    public static boolean getFriendlyBoolean(String s) {
-        s = s.toLowerCase();
+    /**
+     * The single vocabulary shared by every boolean parser of the plugin.
+     */
+    private static final Map<String, State> VOCABULARY = ImmutableMap.<String, State>builder()
+            .put("true", State.TRUE)
+            .put("yes", State.TRUE)
+            .put("enable", State.TRUE)
+            .put("false", State.FALSE)
+            .put("no", State.FALSE)
+            .put("disable", State.FALSE)
+            .put("toggle", State.TOGGLE)
+            .build();
+
+    private static final String BOOLEAN_HINT = describe(false);
+    private static final String STATE_HINT = describe(true);
+
+    private static String describe(boolean toggle) {
+        StringJoiner joiner = new StringJoiner(", ");
+
+        for (Map.Entry<String, State> entry : VOCABULARY.entrySet()) {
+            if (toggle || entry.getValue() != State.TOGGLE) {
+                joiner.add(entry.getKey());
+            }
+        }
+
+        return joiner.toString();
+    }
+
+    public static Set<String> getVocabulary() {
+        return VOCABULARY.keySet();
+    }
+
+    /**
+     * Lists the accepted words for hints such as usage errors, generated from the vocabulary.
+     * @param toggle Whether or not to include "toggle".
+     * @return The words, separated by commas.
+     */
+    public static String getHint(boolean toggle) {
+        return toggle ? STATE_HINT : BOOLEAN_HINT;
+    }
+
+    /**
+     * Parses a state, ignoring case.
+     * @param s The String to parse.
+     * @return The state, or null if the String is not part of the vocabulary.
+     */
+    public static State parseState(String s) {
+        return s == null ? null : VOCABULARY.get(s.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Parses a boolean, ignoring case. "toggle" is not a boolean.
+     * @param s The String to parse.
+     * @return The boolean, or null if the String is not a friendly boolean.
+     */
+    public static Boolean parseBoolean(String s) {
+        State state = parseState(s);
+
+        return state == null || state == State.TOGGLE ? null : state == State.TRUE;
+    }
 
-        return trueValues.contains(s);
+    public static boolean isFriendlyBoolean(String s) {
+        return parseBoolean(s) != null;
+    }
+
+    public static boolean getFriendlyBoolean(String s) {
+        return parseState(s) == State.TRUE;
     }
 }
@@ -114,6 +114,46 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
                 .owningPlayer(uuid);
     }
 
+    /**
+     * The kind of ItemMeta a Material carries, deciding which type specific attributes are applied on build.
+     */
+    public enum MetaKind {
+        SKULL, LEATHER, DAMAGEABLE, PLAIN
+    }
+
+    private static final MetaKind[] META_KINDS = new MetaKind[Material.values().length];
+
+    static {
+        for (Material material : Material.values()) {
+            MetaKind kind;
+
+            switch (material) {
+                case PLAYER_HEAD:
+                    kind = MetaKind.SKULL;
+                    break;
+                case LEATHER_BOOTS:
+                case LEATHER_LEGGINGS:
+                case LEATHER_CHESTPLATE:
+                case LEATHER_HELMET:
+                    kind = MetaKind.LEATHER;
+                    break;
+                default:
+                    kind = material.getMaxDurability() > 0 ? MetaKind.DAMAGEABLE : MetaKind.PLAIN;
+            }
+
+            META_KINDS[material.ordinal()] = kind;
+        }
+    }
+
+    /**
+     * Fetches the precomputed kind of ItemMeta of a Material.
+     * @param material The material.
+     * @return The kind.
+     */
+    public static MetaKind getMetaKind(Material material) {
+        return META_KINDS[material.ordinal()];
+    }
+
     /**
      * Represents an enchantment and the logic to use when applying it.
      */
@@ -136,7 +176,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
     public ItemStackBuilder type(Material material) {
         this.type = material;
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -172,7 +212,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
     public ItemStackBuilder durability(short durability) {
         this.durability = durability;
 
-        return this;
+        return invalidate();
     }
 
     @Getter
@@ -186,7 +226,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
     public ItemStackBuilder amount(int amount) {
         this.amount = amount;
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -224,7 +264,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
     public ItemStackBuilder customModelData(int customModelData) {
         this.customModelData = customModelData;
 
-        return this;
+        return invalidate();
     }
 
     @Getter
@@ -238,7 +278,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
     public ItemStackBuilder unbreakable(boolean unbreakable) {
         this.unbreakable = unbreakable;
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -276,7 +316,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
     public ItemStackBuilder setFlags(Set<ItemFlag> flags) {
         this.flags = flags;
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -289,7 +329,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
 
         this.flags.addAll(Arrays.asList(flags));
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -302,7 +342,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
 
         this.flags.removeAll(Arrays.asList(flags));
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -312,7 +352,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
     public ItemStackBuilder clearFlags() {
         this.flags = new HashSet<>();
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -360,9 +400,9 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
      * @return The instance.
      */
     public ItemStackBuilder name(String name) {
-        this.name = StringUtilities.color(name);
+        this.name = ColorCache.shared().color(name);
 
-        return this;
+        return invalidate();
     }
 
     @Getter
@@ -374,9 +414,9 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
      * @return The instance.
      */
     public ItemStackBuilder lore(String... lore) {
-        this.lore = StringUtilities.color(lore);
+        this.lore = new ArrayList<>(ColorCache.shared().color(Arrays.asList(lore)));
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -385,9 +425,9 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
      * @return The instance.
      */
     public ItemStackBuilder lore(List<String> lore) {
-        this.lore = StringUtilities.color(lore);
+        this.lore = new ArrayList<>(ColorCache.shared().color(lore));
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -400,9 +440,9 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
 
         list.addAll(this.lore);
 
-        this.lore = StringUtilities.color(list);
+        this.lore = new ArrayList<>(ColorCache.shared().color(list));
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -424,11 +464,11 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
             this.lore = new ArrayList<>();
         }
 
-        List<String> add = StringUtilities.color(lore);
+        List<String> add = ColorCache.shared().color(Arrays.asList(lore));
 
         this.lore.addAll(add);
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -439,7 +479,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
     public ItemStackBuilder removeLore(int index) {
         this.lore.remove(index);
 
-        return this;
+        return invalidate();
     }
 
     // TODO Remove first line, last line, range of lines, etc. Insert lore at index
@@ -463,7 +503,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
             }
         }
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -482,7 +522,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
     public ItemStackBuilder clearLore() {
         this.lore = new ArrayList<>();
 
-        return this;
+        return invalidate();
     }
 
     @Getter
@@ -498,7 +538,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
 
         this.attributeModifiers = attributeModifiers;
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -510,7 +550,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
     public ItemStackBuilder attribute(Attribute attribute, AttributeModifier modifier) {
         this.attributeModifiers.put(attribute, modifier);
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -521,7 +561,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
     public ItemStackBuilder removeAttribute(Attribute attribute) {
         this.attributeModifiers.removeAll(attribute);
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -533,7 +573,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
     public ItemStackBuilder removeAttribute(Attribute attribute, AttributeModifier attributeModifier) {
         this.attributeModifiers.remove(attribute, attributeModifier);
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -543,7 +583,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
     public ItemStackBuilder clearAttributes() {
         this.attributeModifiers = ArrayListMultimap.create();
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -585,7 +625,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
     public ItemStackBuilder enchants(List<Enchant> enchants) {
         this.enchants = enchants;
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -607,7 +647,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
 
         this.enchants = list;
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -618,7 +658,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
     public ItemStackBuilder enchant(Enchant... enchants) {
         this.enchants.addAll(Arrays.asList(enchants));
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -637,7 +677,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
                         .build()
         );
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -655,7 +695,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
             );
         }
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -684,7 +724,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
 
         this.enchants = list;
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -694,7 +734,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
     public ItemStackBuilder clearEnchants() {
         this.enchants = new ArrayList<>();
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -738,7 +778,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
     public ItemStackBuilder owningPlayer(UUID uuid) {
         this.owningPlayer = uuid;
 
-        return this;
+        return invalidate();
     }
 
     /**
@@ -749,7 +789,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
     public ItemStackBuilder owningPlayer(OfflinePlayer player) {
         this.owningPlayer = player.getUniqueId();
 
-        return this;
+        return invalidate();
     }
 
     @Getter
@@ -763,9 +803,38 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
     public ItemStackBuilder color(Color color) {
         this.color = color;
 
+        return invalidate();
+    }
+
+    /**
+     * The item last built by this builder, never handed out. Dropped by every mutating method.
+     */
+    private ItemStack prototype;
+
+    /**
+     * The structural hash of the state the prototype was built from, catching changes made through the mutable collections returned by the getters.
+     */
+    private int prototypeHash;
+
+    /**
+     * Whether or not the prototype is a placeholder head still waiting for its owner to be resolved.
+     */
+    private boolean prototypePending;
+
+    private ItemStackBuilder invalidate() {
+        this.prototype = null;
+
         return this;
     }
 
+    /**
+     * Computes a hash over every attribute which affects the built item.
+     * @return The hash.
+     */
+    public int structuralHash() {
+        return Objects.hash(type, durability, amount, customModelData, unbreakable, flags, name, lore, attributeModifiers, enchants, owningPlayer, color);
+    }
+
     public ItemStackBuilder() {
         this.type = Material.DIRT;
         this.amount = 1;
@@ -779,11 +848,12 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
         this.type = itemStack.getType();
         this.amount = itemStack.getAmount();
 
-        if (itemStack.hasItemMeta() && itemStack.getItemMeta() != null) {
-            ItemMeta meta = itemStack.getItemMeta();
-            Damageable damageable = (Damageable) meta;
+        ItemMeta meta = itemStack.getItemMeta();
 
-            this.durability = (short) damageable.getDamage();
+        if (itemStack.hasItemMeta() && meta != null) {
+            if (meta instanceof Damageable) {
+                this.durability = (short) ((Damageable) meta).getDamage();
+            }
 
             if (meta.hasCustomModelData()) {
                 this.customModelData = meta.getCustomModelData();
@@ -792,7 +862,7 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
             this.name = meta.getDisplayName();
             this.lore = meta.getLore();
             this.flags = meta.getItemFlags();
-            this.unbreakable = itemStack.getItemMeta().isUnbreakable();
+            this.unbreakable = meta.isUnbreakable();
             this.attributeModifiers = meta.getAttributeModifiers();
             this.enchants = new ArrayList<>();
 
@@ -808,19 +878,18 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
             }
         }
 
-        if (itemStack.getType().equals(Material.PLAYER_HEAD) && itemStack.getItemMeta() instanceof SkullMeta) {
-            SkullMeta sm = (SkullMeta) itemStack.getItemMeta();
-            OfflinePlayer owning = sm.getOwningPlayer();
+        if (itemStack.getType().equals(Material.PLAYER_HEAD) && meta instanceof SkullMeta) {
+            OfflinePlayer owning = ((SkullMeta) meta).getOwningPlayer();
 
             if (owning == null) {
                 return;
             }
 
-            this.owningPlayer = sm.getOwningPlayer().getUniqueId();
+            this.owningPlayer = owning.getUniqueId();
         }
 
-        if (itemStack.getItemMeta() instanceof LeatherArmorMeta) {
-            this.color = ((LeatherArmorMeta) itemStack.getItemMeta()).getColor();
+        if (meta instanceof LeatherArmorMeta) {
+            this.color = ((LeatherArmorMeta) meta).getColor();
         }
     }
 
@@ -828,20 +897,46 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
         this(item.get());
     }
 
+    /**
+     * Builds the item. The result is memoized as a prototype until the builder changes, so repeated builds only cost a clone of the prototype. A skull's owner is resolved inline if it isn't cached yet.
+     * @return A new ItemStack.
+     */
     public ItemStack build() {
+        return build(false);
+    }
+
+    /**
+     * Builds the item, optionally allowing a placeholder head while the skull's owner is resolved off the main thread. Placeholders are only swapped for the owned head while they sit in an open GUI, so they must not be handed out anywhere else.
+     * @param allowPlaceholder Whether or not an unresolved owner may be built as a placeholder head.
+     * @return A new ItemStack.
+     */
+    public ItemStack build(boolean allowPlaceholder) {
+        int hash = structuralHash();
+
+        if (prototype == null || hash != prototypeHash || (prototypePending && (!allowPlaceholder || SkullProfiles.isResolved(owningPlayer)))) {
+            this.prototypePending = false;
+            this.prototype = create(allowPlaceholder);
+            this.prototypeHash = hash;
+        }
+
+        return prototype.clone();
+    }
+
+    private ItemStack create(boolean allowPlaceholder) {
         ItemStack itemStack = new ItemStack(type, amount);
-        ItemMeta meta = itemStack.getItemMeta();
+        MetaKind kind = getMetaKind(type);
+        SkullMeta owned = null;
 
-        if (meta == null) {
-            return itemStack;
+        // A resolved owner comes as a complete head meta, so building on a copy of it needs no profile lookup.
+        if (kind == MetaKind.SKULL && owningPlayer != null) {
+            owned = allowPlaceholder ? SkullProfiles.get(owningPlayer) : SkullProfiles.resolve(owningPlayer);
         }
 
-        if (durability >= NumberUtils.SHORT_ZERO) {
-            if (meta instanceof Damageable) {
-                Damageable damageable = (Damageable) meta;
 
-                damageable.setDamage(durability);
-            }
+        ItemMeta meta = owned != null ? owned : itemStack.getItemMeta();
+
+        if (meta == null) {
+            return itemStack;
         }
 
         if (customModelData >= NumberUtils.INTEGER_ZERO) {
@@ -856,11 +951,11 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
         }
 
         if (name != null && !name.isEmpty()) {
-            meta.setDisplayName(StringUtilities.color(name));
+            meta.setDisplayName(ColorCache.shared().color(name));
         }
 
         if (lore != null && !lore.isEmpty()) {
-            meta.setLore(StringUtilities.color(lore));
+            meta.setLore(ColorCache.shared().color(lore));
         }
 
         if (attributeModifiers != null && !attributeModifiers.isEmpty()) {
@@ -873,28 +968,38 @@ public class ItemStackBuilder implements Supplier<ItemStack>, Cloneable {
             }
         }
 
-        itemStack.setItemMeta(meta);
-
-        Material type = itemStack.getType();
+        // The kind decides the type of the meta, so no instanceof checks are needed. A fresh meta is undamaged already, so zero damage needs no write.
+        switch (kind) {
+            case SKULL:
+                if (owningPlayer != null && owned == null) {
+                    SkullProfiles.tag((SkullMeta) meta, owningPlayer);
 
-        if (type.equals(Material.PLAYER_HEAD) && itemStack.getItemMeta() instanceof SkullMeta && owningPlayer != null) {
-            SkullMeta sm = (SkullMeta) itemStack.getItemMeta();
-
-            sm.setOwningPlayer(Bukkit.getOfflinePlayer(owningPlayer));
+                    this.prototypePending = true;
+                }
 
-            itemStack.setItemMeta(sm);
-        }
+                break;
+            case LEATHER:
+                if (color != null) {
+                    ((LeatherArmorMeta) meta).setColor(color);
+                }
 
-        if ((type.equals(Material.LEATHER_BOOTS) || type.equals(Material.LEATHER_LEGGINGS) || type.equals(Material.LEATHER_CHESTPLATE) || type.equals(Material.LEATHER_HELMET))
-                        && itemStack.getItemMeta() instanceof LeatherArmorMeta
-                        && this.color != null) {
-            LeatherArmorMeta lm = (LeatherArmorMeta) itemStack.getItemMeta();
+                if (durability > NumberUtils.SHORT_ZERO) {
+                    ((Damageable) meta).setDamage(durability);
+                }
 
-            lm.setColor(color);
+                break;
+            case DAMAGEABLE:
+                if (durability > NumberUtils.SHORT_ZERO) {
+                    ((Damageable) meta).setDamage(durability);
+                }
 
-            itemStack.setItemMeta(lm);
+                break;
+            default:
+                break;
         }
 
+        itemStack.setItemMeta(meta);
+
         return itemStack;
     }
 
@@ -0,0 +1,166 @@
+package io.github.grisstyl.potterplus.api.misc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable message compiled once from its raw form. Color and hex codes are translated at compile time and every $placeholder is split out into its own segment, so formatting is a single StringBuilder fill without regex or repeated replace passes.
+ */
+public final class MessageTemplate {
+
+    /**
+     * Compiles a message.
+     * @param raw The raw message, ex. "&7Feature &e$feature &7has been $state".
+     * @param constants Placeholders inlined at compile time, ex. "prefix". Their values are colored along with the message.
+     * @return The template.
+     */
+    public static MessageTemplate compile(String raw, Map<String, String> constants) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        StringBuilder literal = new StringBuilder(raw.length());
+
+        int i = 0;
+
+        while (i < raw.length()) {
+            char c = raw.charAt(i);
+            int end = i + 1;
+
+            if (c == '$' && end < raw.length() && Placeholders.isNameStart(raw.charAt(end))) {
+                while (end < raw.length() && Placeholders.isNamePart(raw.charAt(end))) {
+                    end++;
+                }
+
+                String name = raw.substring(i + 1, end);
+                String constant = constants.get(name);
+
+                if (constant != null) {
+                    literal.append(constant);
+                } else {
+                    literals.add(StringUtilities.color(literal.toString()));
+                    placeholders.add(name);
+                    literal.setLength(0);
+                }
+
+                i = end;
+
+                continue;
+            }
+
+            literal.append(c);
+            i++;
+        }
+
+        literals.add(StringUtilities.color(literal.toString()));
+
+        return new MessageTemplate(literals.toArray(new String[0]), placeholders.toArray(new String[0]));
+    }
+
+    public static MessageTemplate compile(String raw) {
+        return compile(raw, Collections.emptyMap());
+    }
+
+    /**
+     * The colored text around the placeholders. There is always one more literal than placeholders.
+     */
+    private final String[] literals;
+    private final String[] placeholders;
+
+    private final int literalLength;
+
+    private MessageTemplate(String[] literals, String[] placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+
+        int length = 0;
+
+        for (String literal : literals) {
+            length += literal.length();
+        }
+
+        this.literalLength = length;
+    }
+
+    public boolean hasPlaceholders() {
+        return placeholders.length > 0;
+    }
+
+    /**
+     * Fills the placeholders. Placeholders without a supplied value are left as "$name".
+     * @param values Alternating placeholder names and values, ex. "feature", key, "state", state.
+     * @return The formatted, colored message.
+     */
+    public String format(Object... values) {
+        if (placeholders.length == 0) {
+            return literals[0];
+        }
+
+        StringBuilder builder = new StringBuilder(literalLength + placeholders.length * 16);
+
+        for (int i = 0; i < placeholders.length; i++) {
+            builder.append(literals[i]);
+
+            Object value = find(placeholders[i], values);
+
+            if (value == null) {
+                builder.append('$').append(placeholders[i]);
+            } else {
+                builder.append(value);
+            }
+        }
+
+        return builder.append(literals[placeholders.length]).toString();
+    }
+
+    /**
+     * Fills the placeholders from a map of names to values.
+     * @param values The values.
+     * @return The formatted, colored message.
+     */
+    public String format(Map<String, ?> values) {
+        return format(values::get);
+    }
+
+    /**
+     * Fills the placeholders from a lookup.
+     * @param lookup Supplies values by name, without the $.
+     * @return The formatted, colored message.
+     */
+    public String format(Placeholders.Lookup lookup) {
+        if (placeholders.length == 0) {
+            return literals[0];
+        }
+
+        StringBuilder builder = new StringBuilder(literalLength + placeholders.length * 16);
+
+        for (int i = 0; i < placeholders.length; i++) {
+            Object value = lookup.get(placeholders[i]);
+
+            builder.append(literals[i]);
+
+            if (value == null) {
+                builder.append('$').append(placeholders[i]);
+            } else {
+                builder.append(value);
+            }
+        }
+
+        return builder.append(literals[placeholders.length]).toString();
+    }
+
+    private static Object find(String placeholder, Object[] values) {
+        for (int i = 0; i + 1 < values.length; i += 2) {
+            if (placeholder.equals(values[i])) {
+                return values[i + 1];
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
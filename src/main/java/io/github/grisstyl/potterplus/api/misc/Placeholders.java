@@ -0,0 +1,307 @@
+package io.github.grisstyl.potterplus.api.misc;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Replaces a fixed set of placeholder keys in a single scan with an Aho-Corasick automaton. Overlapping keys resolve to the leftmost, then longest, match. Compiled instances are immutable and thread-safe.
+ */
+public final class Placeholders {
+
+    /**
+     * Supplies placeholder values on demand, so callers don't need to build a map per render.
+     */
+    @FunctionalInterface
+    public interface Lookup {
+
+        /**
+         * Fetches the value of a placeholder.
+         * @param key The placeholder.
+         * @return The value, or null to leave the placeholder as is.
+         */
+        Object get(String key);
+    }
+
+    private static final int MAX_CACHED = 64;
+
+    private static final Map<Set<String>, Placeholders> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Fetches the automaton for a set of keys, compiling and caching it on first use.
+     * @param keys The keys.
+     * @return The automaton.
+     */
+    public static Placeholders forKeys(Set<String> keys) {
+        Placeholders placeholders = CACHE.get(keys);
+
+        if (placeholders == null) {
+            if (CACHE.size() >= MAX_CACHED) {
+                CACHE.clear();
+            }
+
+            Set<String> copy = ImmutableSet.copyOf(keys);
+
+            placeholders = CACHE.computeIfAbsent(copy, Placeholders::compile);
+        }
+
+        return placeholders;
+    }
+
+    /**
+     * Compiles an automaton for a set of keys.
+     * @param keys The keys. Empty keys are ignored. At most 65535 keys shorter than 65535 characters are supported.
+     * @return The automaton.
+     */
+    public static Placeholders compile(Collection<String> keys) {
+        return new Placeholders(keys);
+    }
+
+    /**
+     * Replaces every "$name" placeholder of an ad hoc String in a single scan, ex. "give $player diamond".
+     * @param str The String.
+     * @param lookup Supplies values by name, without the $.
+     * @return The String with the placeholders replaced.
+     */
+    public static String format(String str, Lookup lookup) {
+        int i = str.indexOf('$');
+
+        if (i < 0) {
+            return str;
+        }
+
+        StringBuilder builder = new StringBuilder(str.length() + 16);
+
+        builder.append(str, 0, i);
+
+        while (i < str.length()) {
+            char c = str.charAt(i);
+            int end = i + 1;
+
+            if (c == '$' && end < str.length() && isNameStart(str.charAt(end))) {
+                while (end < str.length() && isNamePart(str.charAt(end))) {
+                    end++;
+                }
+
+                Object value = lookup.get(str.substring(i + 1, end));
+
+                if (value == null) {
+                    builder.append(str, i, end);
+                } else {
+                    builder.append(value);
+                }
+
+                i = end;
+            } else {
+                builder.append(c);
+                i++;
+            }
+        }
+
+        return builder.toString();
+    }
+
+    static boolean isNameStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    static boolean isNamePart(char c) {
+        return isNameStart(c) || (c >= '0' && c <= '9');
+    }
+
+    private final String[] keys;
+
+    // Goto transitions of each node as sorted chars with their target nodes.
+    private final char[][] chars;
+    private final int[][] targets;
+
+    private final int[] fail;
+
+    /**
+     * The key ending at each node, or -1.
+     */
+    private final int[] output;
+
+    /**
+     * The nearest node on the failure chain which ends a key, or -1.
+     */
+    private final int[] dictionary;
+
+    private Placeholders(Collection<String> keys) {
+        List<String> list = new ArrayList<>();
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+
+        trie.add(new TreeMap<>());
+        outputs.add(-1);
+
+        for (String key : new LinkedHashSet<>(keys)) {
+            if (key.isEmpty()) {
+                continue;
+            }
+
+            if (key.length() >= 0xFFFF || list.size() >= 0xFFFF) {
+                throw new IllegalArgumentException("Too many or too long placeholder keys.");
+            }
+
+            int node = 0;
+
+            for (int i = 0; i < key.length(); i++) {
+                Integer next = trie.get(node).get(key.charAt(i));
+
+                if (next == null) {
+                    next = trie.size();
+
+                    trie.get(node).put(key.charAt(i), next);
+                    trie.add(new TreeMap<>());
+                    outputs.add(-1);
+                }
+
+                node = next;
+            }
+
+            outputs.set(node, list.size());
+            list.add(key);
+        }
+
+        int size = trie.size();
+
+        this.keys = list.toArray(new String[0]);
+        this.chars = new char[size][];
+        this.targets = new int[size][];
+        this.fail = new int[size];
+        this.output = new int[size];
+        this.dictionary = new int[size];
+
+        for (int node = 0; node < size; node++) {
+            TreeMap<Character, Integer> children = trie.get(node);
+            int i = 0;
+
+            chars[node] = new char[children.size()];
+            targets[node] = new int[children.size()];
+
+            for (Map.Entry<Character, Integer> entry : children.entrySet()) {
+                chars[node][i] = entry.getKey();
+                targets[node][i] = entry.getValue();
+                i++;
+            }
+
+            output[node] = outputs.get(node);
+        }
+
+        // Breadth-first, so every failure target is resolved before its dependents.
+        Deque<Integer> queue = new ArrayDeque<>();
+
+        dictionary[0] = -1;
+
+        for (int child : targets[0]) {
+            fail[child] = 0;
+            dictionary[child] = -1;
+
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+
+            for (int i = 0; i < chars[node].length; i++) {
+                char c = chars[node][i];
+                int child = targets[node][i];
+                int state = fail[node];
+
+                while (state != 0 && child(state, c) < 0) {
+                    state = fail[state];
+                }
+
+                int target = child(state, c);
+
+                fail[child] = target < 0 ? 0 : target;
+                dictionary[child] = output[fail[child]] >= 0 ? fail[child] : dictionary[fail[child]];
+
+                queue.add(child);
+            }
+        }
+    }
+
+    private int child(int node, char c) {
+        int i = Arrays.binarySearch(chars[node], c);
+
+        return i < 0 ? -1 : targets[node][i];
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Replaces every key of this automaton found in a String.
+     * @param str The String.
+     * @param lookup Supplies values by key.
+     * @return The String with the keys replaced, or the same String if none was found.
+     */
+    public String replace(String str, Lookup lookup) {
+        if (keys.length == 0) {
+            return str;
+        }
+
+        long[] matches = null;
+        int count = 0;
+        int state = 0;
+
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            int next;
+
+            while ((next = child(state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+
+            state = next < 0 ? 0 : next;
+
+            for (int node = output[state] >= 0 ? state : dictionary[state]; node >= 0; node = dictionary[node]) {
+                int key = output[node];
+                int start = i - keys[key].length() + 1;
+
+                if (matches == null) {
+                    matches = new long[8];
+                } else if (count == matches.length) {
+                    matches = Arrays.copyOf(matches, count * 2);
+                }
+
+                // Sorts by start, then by longest key.
+                matches[count++] = ((long) start << 32) | ((long) (0xFFFF - keys[key].length()) << 16) | key;
+            }
+        }
+
+        if (count == 0) {
+            return str;
+        }
+
+        Arrays.sort(matches, 0, count);
+
+        StringBuilder builder = new StringBuilder(str.length() + count * 8);
+        int cursor = 0;
+
+        for (int m = 0; m < count; m++) {
+            int start = (int) (matches[m] >>> 32);
+
+            if (start < cursor) {
+                continue;
+            }
+
+            String key = keys[(int) (matches[m] & 0xFFFF)];
+            Object value = lookup.get(key);
+
+            if (value == null) {
+                continue;
+            }
+
+            builder.append(str, cursor, start).append(value);
+
+            cursor = start + key.length();
+        }
+
+        return cursor == 0 ? str : builder.append(str, cursor, str.length()).toString();
+    }
+}
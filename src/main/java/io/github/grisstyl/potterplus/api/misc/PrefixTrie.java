@@ -0,0 +1,194 @@
+package io.github.grisstyl.potterplus.api.misc;
+
+import java.util.*;
+
+/**
+ * A case-insensitive prefix trie of Strings for fast completions. Every node keeps the sorted words below it, so completing a prefix is one walk down the trie. Not thread-safe.
+ */
+public class PrefixTrie {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private static final class Node {
+
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private int childCount;
+
+        private final List<String> words = new ArrayList<>();
+
+        private Node child(char c) {
+            int i = Arrays.binarySearch(keys, 0, childCount, c);
+
+            return i < 0 ? null : children[i];
+        }
+
+        private Node getOrCreateChild(char c) {
+            int i = Arrays.binarySearch(keys, 0, childCount, c);
+
+            if (i >= 0) {
+                return children[i];
+            }
+
+            i = -i - 1;
+
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+
+            System.arraycopy(keys, i, keys, i + 1, childCount - i);
+            System.arraycopy(children, i, children, i + 1, childCount - i);
+
+            Node node = new Node();
+
+            keys[i] = c;
+            children[i] = node;
+            childCount++;
+
+            return node;
+        }
+
+        private void removeChild(char c) {
+            int i = Arrays.binarySearch(keys, 0, childCount, c);
+
+            if (i < 0) {
+                return;
+            }
+
+            System.arraycopy(keys, i + 1, keys, i, childCount - i - 1);
+            System.arraycopy(children, i + 1, children, i, childCount - i - 1);
+
+            children[--childCount] = null;
+        }
+    }
+
+    private static final Comparator<String> ORDER = String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+
+    private final Node root;
+    private final Set<String> words;
+
+    public PrefixTrie() {
+        this.root = new Node();
+        this.words = new HashSet<>();
+    }
+
+    public PrefixTrie(Collection<String> words) {
+        this();
+
+        for (String word : words) {
+            add(word);
+        }
+    }
+
+    public int size() {
+        return words.size();
+    }
+
+    public boolean contains(String word) {
+        return words.contains(word);
+    }
+
+    /**
+     * Adds a word to the trie.
+     * @param word The word.
+     */
+    public void add(String word) {
+        if (!words.add(word)) {
+            return;
+        }
+
+        String lower = word.toLowerCase(Locale.ROOT);
+        Node node = root;
+
+        insertSorted(node.words, word);
+
+        for (int i = 0; i < lower.length(); i++) {
+            node = node.getOrCreateChild(lower.charAt(i));
+
+            insertSorted(node.words, word);
+        }
+    }
+
+    /**
+     * Removes a word from the trie, pruning nodes left without words.
+     * @param word The word.
+     */
+    public void remove(String word) {
+        if (!words.remove(word)) {
+            return;
+        }
+
+        String lower = word.toLowerCase(Locale.ROOT);
+        Node node = root;
+
+        removeSorted(node.words, word);
+
+        for (int i = 0; i < lower.length(); i++) {
+            Node child = node.child(lower.charAt(i));
+
+            removeSorted(child.words, word);
+
+            if (child.words.isEmpty()) {
+                node.removeChild(lower.charAt(i));
+
+                return;
+            }
+
+            node = child;
+        }
+    }
+
+    /**
+     * Incrementally updates the trie to contain exactly the supplied words, touching only the words that were added or removed.
+     * @param updated The new set of words.
+     */
+    public void update(Collection<String> updated) {
+        Set<String> target = updated instanceof Set ? (Set<String>) updated : new HashSet<>(updated);
+
+        for (String word : new ArrayList<>(words)) {
+            if (!target.contains(word)) {
+                remove(word);
+            }
+        }
+
+        for (String word : target) {
+            add(word);
+        }
+    }
+
+    /**
+     * Fetches the words starting with a prefix, ignoring case.
+     * @param prefix The prefix.
+     * @return A sorted copy of the words, safe to keep while the trie is updated.
+     */
+    public List<String> complete(String prefix) {
+        String lower = prefix.toLowerCase(Locale.ROOT);
+        Node node = root;
+
+        for (int i = 0; i < lower.length() && node != null; i++) {
+            node = node.child(lower.charAt(i));
+        }
+
+        return node == null ? new ArrayList<>() : new ArrayList<>(node.words);
+    }
+
+    private static void insertSorted(List<String> list, String word) {
+        int i = Collections.binarySearch(list, word, ORDER);
+
+        if (i < 0) {
+            list.add(-i - 1, word);
+        }
+    }
+
+    private static void removeSorted(List<String> list, String word) {
+        int i = Collections.binarySearch(list, word, ORDER);
+
+        if (i >= 0) {
+            list.remove(i);
+        }
+    }
+}
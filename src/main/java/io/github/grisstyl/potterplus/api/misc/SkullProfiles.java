@@ -0,0 +1,338 @@
+package io.github.grisstyl.potterplus.api.misc;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.github.grisstyl.potterplus.api.gui.GUI;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.SkullMeta;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves skull owners off the main thread and keeps the results in a bounded cache. A resolved owner is kept as a head meta whose profile is already complete, so the main thread only clones it and never triggers a profile lookup. GUI buttons built before their owner is resolved get a placeholder with the default head texture, tagged with the owner's UUID; once it arrives, tagged heads in open GUIs and their buttons are swapped in place and the tag is dropped. Items built anywhere else always carry their owner. Until this is prepared, owners are resolved inline through Bukkit.
+ */
+public class SkullProfiles {
+
+    /**
+     * Resolves the profile of a skull owner. Called off the main thread, so it may block.
+     */
+    @FunctionalInterface
+    public interface ProfileResolver {
+
+        /**
+         * Resolves a skull owner into a head meta carrying its profile. The meta is cached and cloned for every head of the owner, so any lookups of the name or textures belong here.
+         * @param uuid The UUID of the owner.
+         * @return The head meta, or null if the owner cannot be resolved.
+         */
+        SkullMeta resolve(UUID uuid);
+
+        /**
+         * Fetches the resolver which looks owners up through Bukkit. The server fills in the textures of the resulting profile from its own skin cache.
+         * @return The resolver.
+         */
+        static ProfileResolver bukkit() {
+            return uuid -> createMeta(Bukkit.getOfflinePlayer(uuid));
+        }
+
+        /**
+         * Creates a resolver which only knows a fixed set of owners, for offline servers and local testing.
+         * @param owners The owners by UUID.
+         * @return The resolver.
+         */
+        static ProfileResolver of(Map<UUID, ? extends OfflinePlayer> owners) {
+            Map<UUID, OfflinePlayer> copy = new HashMap<>(owners);
+
+            return uuid -> {
+                OfflinePlayer owner = copy.get(uuid);
+
+                return owner == null ? null : createMeta(owner);
+            };
+        }
+    }
+
+    /**
+     * Warms the cache with players as they join. An online player's profile is complete already, so this needs no lookup. The cached meta only keeps the profile, so no Player instance outlives its session.
+     */
+    private static class ProfileListener implements Listener {
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onJoin(PlayerJoinEvent event) {
+            Player player = event.getPlayer();
+
+            FAILED.invalidate(player.getUniqueId());
+            complete(player.getUniqueId(), createMeta(player));
+        }
+    }
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    private static final Cache<UUID, SkullMeta> PROFILES = CacheBuilder.newBuilder()
+            .maximumSize(DEFAULT_MAXIMUM_SIZE)
+            .expireAfterAccess(30L, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * Owners the resolver could not resolve, kept briefly so every render doesn't retry them.
+     */
+    private static final Cache<UUID, Boolean> FAILED = CacheBuilder.newBuilder()
+            .maximumSize(DEFAULT_MAXIMUM_SIZE)
+            .expireAfterWrite(1L, TimeUnit.MINUTES)
+            .build();
+
+    private static final Set<UUID> PENDING = ConcurrentHashMap.newKeySet();
+
+    private static volatile JavaPlugin plugin;
+    private static volatile ProfileResolver resolver = ProfileResolver.bukkit();
+    private static volatile NamespacedKey ownerKey;
+
+    /**
+     * Registers the listener which warms the cache and enables asynchronous resolution.
+     * @param plugin The plugin to register the listener and schedule tasks for.
+     * @param resolver The resolver to use.
+     */
+    public static void prepare(JavaPlugin plugin, ProfileResolver resolver) {
+        SkullProfiles.resolver = resolver;
+
+        if (SkullProfiles.plugin == null) {
+            plugin.getServer().getPluginManager().registerEvents(new ProfileListener(), plugin);
+
+            SkullProfiles.ownerKey = new NamespacedKey(plugin, "skull_owner");
+            SkullProfiles.plugin = plugin;
+        }
+
+        FAILED.invalidateAll();
+    }
+
+    public static void prepare(JavaPlugin plugin) {
+        prepare(plugin, ProfileResolver.bukkit());
+    }
+
+    /**
+     * Creates a head meta owned by a player. Setting the owner looks up its name unless the player is online, so off the main thread this is where the lookup happens. The item factory only constructs the meta, so it is safe to use from any thread.
+     * @param owner The owner.
+     * @return The head meta.
+     */
+    public static SkullMeta createMeta(OfflinePlayer owner) {
+        SkullMeta meta = (SkullMeta) Bukkit.getItemFactory().getItemMeta(Material.PLAYER_HEAD);
+
+        meta.setOwningPlayer(owner);
+
+        return meta;
+    }
+
+    /**
+     * Fetches a head meta carrying a resolved owner, requesting its resolution if it isn't cached yet.
+     * @param uuid The UUID of the owner.
+     * @return A copy of the resolved head meta, or null if the owner is still being resolved.
+     */
+    public static SkullMeta get(UUID uuid) {
+        if (plugin == null) {
+            return createMeta(Bukkit.getOfflinePlayer(uuid));
+        }
+
+        SkullMeta meta = PROFILES.getIfPresent(uuid);
+
+        if (meta == null) {
+            request(uuid);
+
+            return null;
+        }
+
+        return meta.clone();
+    }
+
+    /**
+     * Fetches a head meta carrying an owner, resolving the owner inline through Bukkit if it isn't cached yet. This may block, so rendering paths which can show a placeholder should use {@link #get(UUID)} instead.
+     * @param uuid The UUID of the owner.
+     * @return A copy of the resolved head meta.
+     */
+    public static SkullMeta resolve(UUID uuid) {
+        SkullMeta meta = plugin == null ? null : PROFILES.getIfPresent(uuid);
+
+        if (meta == null) {
+            meta = createMeta(Bukkit.getOfflinePlayer(uuid));
+
+            if (plugin != null) {
+                PROFILES.put(uuid, meta);
+            }
+        }
+
+        return meta.clone();
+    }
+
+    public static boolean isResolved(UUID uuid) {
+        return plugin == null || PROFILES.getIfPresent(uuid) != null;
+    }
+
+    /**
+     * Tags a head meta as a placeholder for an owner which is still being resolved.
+     * @param meta The meta of the skull.
+     * @param uuid The UUID of the owner.
+     */
+    public static void tag(SkullMeta meta, UUID uuid) {
+        if (ownerKey != null) {
+            meta.getPersistentDataContainer().set(ownerKey, PersistentDataType.STRING, uuid.toString());
+        }
+    }
+
+    /**
+     * Requests an owner to be resolved off the main thread, unless it is already cached, pending or recently failed.
+     * @param uuid The UUID of the owner.
+     */
+    public static void request(UUID uuid) {
+        JavaPlugin plugin = SkullProfiles.plugin;
+
+        if (plugin == null || PROFILES.getIfPresent(uuid) != null || FAILED.getIfPresent(uuid) != null || !PENDING.add(uuid)) {
+            return;
+        }
+
+        ProfileResolver resolver = SkullProfiles.resolver;
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            SkullMeta meta = null;
+
+            try {
+                meta = resolver.resolve(uuid);
+            } catch (RuntimeException e) {
+                PluginLogger.atWarn()
+                        .with("Failed to resolve the skull owner %s: %s", uuid, e.getMessage())
+                        .print();
+            }
+
+            SkullMeta resolved = meta;
+
+            if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (resolved == null) {
+                        PENDING.remove(uuid);
+                        FAILED.put(uuid, Boolean.TRUE);
+                    } else {
+                        complete(uuid, resolved);
+                    }
+                });
+            } else {
+                PENDING.remove(uuid);
+            }
+        });
+    }
+
+    /**
+     * Caches a resolved owner and swaps it into every placeholder head of the open GUIs. Must be called on the main thread.
+     */
+    private static void complete(UUID uuid, SkullMeta owner) {
+        PROFILES.put(uuid, owner);
+        PENDING.remove(uuid);
+
+        if (ownerKey == null) {
+            return;
+        }
+
+        String tag = uuid.toString();
+        Set<GUI> guis = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Inventory> inventories = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            Inventory inventory = player.getOpenInventory().getTopInventory();
+            InventoryHolder holder = inventory.getHolder();
+
+            if (!(holder instanceof GUI) || !inventories.add(inventory)) {
+                continue;
+            }
+
+            if (guis.add((GUI) holder)) {
+                GUI gui = (GUI) holder;
+
+                gui.forEachButton(button -> {
+                    ItemStack swapped = swap(button.getItem(), tag, owner);
+
+                    if (swapped != null) {
+                        button.setItem(swapped);
+                    }
+                });
+
+                // Buttons may have changed in place, so anything rendered from them may be stale.
+                gui.invalidate();
+            }
+
+            ItemStack[] contents = inventory.getContents();
+
+            for (int slot = 0; slot < contents.length; slot++) {
+                ItemStack swapped = swap(contents[slot], tag, owner);
+
+                if (swapped != null) {
+                    inventory.setItem(slot, swapped);
+                }
+            }
+        }
+    }
+
+    /**
+     * Swaps the owner into a placeholder head by copying what the head displays onto a clone of the resolved meta. The placeholder tag is not carried over, so swapped heads can't be mistaken for placeholders once they leave the GUI.
+     * @return The head with its owner, or null if the item isn't a placeholder for the owner.
+     */
+    private static ItemStack swap(ItemStack item, String tag, SkullMeta owner) {
+        if (item == null || !item.hasItemMeta()) {
+            return null;
+        }
+
+        ItemMeta meta = item.getItemMeta();
+
+        if (!(meta instanceof SkullMeta) || !tag.equals(meta.getPersistentDataContainer().get(ownerKey, PersistentDataType.STRING))) {
+            return null;
+        }
+
+        SkullMeta owned = owner.clone();
+
+        if (meta.hasDisplayName()) {
+            owned.setDisplayName(meta.getDisplayName());
+        }
+
+        if (meta.hasLore()) {
+            owned.setLore(meta.getLore());
+        }
+
+        if (meta.hasCustomModelData()) {
+            owned.setCustomModelData(meta.getCustomModelData());
+        }
+
+        if (meta.hasAttributeModifiers()) {
+            owned.setAttributeModifiers(meta.getAttributeModifiers());
+        }
+
+        meta.getEnchants().forEach((enchantment, level) -> owned.addEnchant(enchantment, level, true));
+        owned.addItemFlags(meta.getItemFlags().toArray(new ItemFlag[0]));
+        owned.setUnbreakable(meta.isUnbreakable());
+
+        ItemStack swapped = item.clone();
+
+        swapped.setItemMeta(owned);
+
+        return swapped;
+    }
+
+    public static long size() {
+        return PROFILES.size();
+    }
+
+    public static void invalidateAll() {
+        PROFILES.invalidateAll();
+        FAILED.invalidateAll();
+    }
+}
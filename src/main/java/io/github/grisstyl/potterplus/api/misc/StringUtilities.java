@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -18,6 +19,25 @@ public class StringUtilities {
 
     public static final char COLOR_CHAR = '&';
 
+    private static final char SECTION_CHAR = '\u00A7';
+
+    /**
+     * The codes translated by color, matching ChatColor#translateAlternateColorCodes. ChatColor#stripColor removes the same codes after a section sign.
+     */
+    private static final boolean[] CODES = new boolean[128];
+
+    private static final int MAX_RETAINED_BUFFER = 8192;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private static final Map<String, Pattern> HEX_PATTERNS = new ConcurrentHashMap<>();
+
+    static {
+        for (char c : "0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx".toCharArray()) {
+            CODES[c] = true;
+        }
+    }
+
     /**
      * Translates color and formatting codes.
      * @param message The message.
@@ -35,7 +55,7 @@ public class StringUtilities {
      * @return The colored message.
      */
     public static String translateHexColorCodes(String formatPrefix, String formatSuffix, String message) {
-        Pattern pattern = Pattern.compile(formatPrefix + "([A-Fa-f0-9]{6})" + formatSuffix);
+        Pattern pattern = HEX_PATTERNS.computeIfAbsent(formatPrefix + "([A-Fa-f0-9]{6})" + formatSuffix, Pattern::compile);
         Matcher matcher = pattern.matcher(message);
         StringBuffer buffer = new StringBuffer(message.length() + 4 * 8);
 
@@ -61,18 +81,53 @@ public class StringUtilities {
     }
 
     /**
-     * Colors a String. First translates color codes (ex. "&6") then translates hex codes (ex. "&#000000#").
+     * Colors a String. Translates color codes (ex. "&6") to section signs and hex codes (ex. "&#000000#") to the "&x&0&0&0&0&0&0" form in a single pass, with the same output as translating color codes and then hex codes.
      * @param str The String to color.
      * @return The colored String.
      */
     public static String color(String str) {
-        str = translateColorCodes(str);
+        if (str == null) {
+            throw new IllegalArgumentException("Cannot translate null text");
+        }
+
+        int length = str.length();
+        int i = str.indexOf(COLOR_CHAR);
+
+        if (i < 0) {
+            return str;
+        }
+
+        StringBuilder builder = buffer(length);
+
+        builder.append(str, 0, i);
+
+        while (i < length) {
+            char c = str.charAt(i);
+
+            if (c != COLOR_CHAR || i + 1 >= length) {
+                builder.append(c);
+                i++;
+
+                continue;
+            }
+
+            char next = str.charAt(i + 1);
 
-        if (str.contains("#")) {
-            str = translateHexColorCodes(str);
+            if (next == '#' && isHexCode(str, i)) {
+                appendHex(builder, str, i);
+
+                i += 9;
+            } else if (next < 128 && CODES[next]) {
+                builder.append(SECTION_CHAR).append(Character.toLowerCase(next));
+
+                i += 2;
+            } else {
+                builder.append(c);
+                i++;
+            }
         }
 
-        return str;
+        return release(builder);
     }
 
     /**
@@ -88,8 +143,84 @@ public class StringUtilities {
         return StringUtilities.color(Arrays.asList(strings));
     }
 
+    /**
+     * Strips the color of a String in a single pass, with the same output as coloring it and then stripping the section sign codes. Hex codes are left in their "&x&0&0&0&0&0&0" form, as coloring produces them.
+     * @param str The String to strip.
+     * @return The stripped String.
+     */
     public static String strip(String str) {
-        return ChatColor.stripColor(color(str));
+        if (str == null) {
+            throw new IllegalArgumentException("Cannot translate null text");
+        }
+
+        int length = str.length();
+
+        if (str.indexOf(COLOR_CHAR) < 0 && str.indexOf(SECTION_CHAR) < 0) {
+            return str;
+        }
+
+        StringBuilder builder = buffer(length);
+
+        // A section sign is held back until the next character shows whether it starts a code.
+        boolean pending = false;
+        int i = 0;
+
+        while (i < length) {
+            char c = str.charAt(i);
+
+            if (c == COLOR_CHAR && i + 1 < length) {
+                char next = str.charAt(i + 1);
+
+                if (next == '#' && isHexCode(str, i)) {
+                    if (pending) {
+                        builder.append(SECTION_CHAR);
+                        pending = false;
+                    }
+
+                    appendHex(builder, str, i);
+
+                    i += 9;
+
+                    continue;
+                } else if (next < 128 && CODES[next]) {
+                    // Translates to a section sign code, which is stripped along with it.
+                    if (pending) {
+                        builder.append(SECTION_CHAR);
+                        pending = false;
+                    }
+
+                    i += 2;
+
+                    continue;
+                }
+            }
+
+            if (pending) {
+                pending = false;
+
+                if (c < 128 && CODES[c]) {
+                    i++;
+
+                    continue;
+                }
+
+                builder.append(SECTION_CHAR);
+            }
+
+            if (c == SECTION_CHAR) {
+                pending = true;
+            } else {
+                builder.append(c);
+            }
+
+            i++;
+        }
+
+        if (pending) {
+            builder.append(SECTION_CHAR);
+        }
+
+        return release(builder);
     }
 
     public static List<String> strip(List<String> strings) {
@@ -97,26 +228,81 @@ public class StringUtilities {
     }
 
     public static List<String> strip(String... strings) {
-        return StringUtilities.color(Arrays.asList(strings));
+        return StringUtilities.strip(Arrays.asList(strings));
     }
 
-    public static String replace(String s, Map<String, String> replace) {
-        if (replace == null || replace.isEmpty()) return s;
+    /**
+     * Checks for a hex code in the default format (ex. "&#000000#") at an index.
+     */
+    private static boolean isHexCode(String str, int i) {
+        if (i + 8 >= str.length() || str.charAt(i + 8) != '#') {
+            return false;
+        }
+
+        for (int j = i + 2; j < i + 8; j++) {
+            char c = str.charAt(j);
 
-        for (Map.Entry<String, String> entry : replace.entrySet()) {
-            s = s.replace(entry.getKey(), entry.getValue());
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F'))) {
+                return false;
+            }
         }
 
-        return s;
+        return true;
     }
 
+    private static void appendHex(StringBuilder builder, String str, int i) {
+        builder.append(COLOR_CHAR).append('x');
+
+        for (int j = i + 2; j < i + 8; j++) {
+            builder.append(COLOR_CHAR).append(str.charAt(j));
+        }
+    }
+
+    private static StringBuilder buffer(int length) {
+        StringBuilder builder = BUFFER.get();
+
+        builder.setLength(0);
+        builder.ensureCapacity(length + 16);
+
+        return builder;
+    }
+
+    private static String release(StringBuilder builder) {
+        String result = builder.toString();
+
+        if (builder.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.set(new StringBuilder(256));
+        }
+
+        return result;
+    }
+
+    /**
+     * Replaces every key of a map found in a String with its value, in a single scan.
+     * @param s The String.
+     * @param replace The keys and their values.
+     * @return The String with the keys replaced.
+     */
+    public static String replace(String s, Map<String, String> replace) {
+        if (replace == null || replace.isEmpty()) return s;
+
+        return Placeholders.forKeys(replace.keySet()).replace(s, replace::get);
+    }
+
+    /**
+     * Replaces every key of a map found in a List of Strings with its value.
+     * @param list The Strings.
+     * @param replace The keys and their values.
+     * @return A new List of the replaced Strings, which callers may modify.
+     */
     public static List<String> replace(List<String> list, Map<String, String> replace) {
         if (replace == null || replace.isEmpty()) return list;
 
-        List<String> newList = new ArrayList<>();
+        Placeholders placeholders = Placeholders.forKeys(replace.keySet());
+        List<String> newList = new ArrayList<>(list.size());
 
         for (String s : list) {
-            newList.add(replace(s, replace));
+            newList.add(placeholders.replace(s, replace::get));
         }
 
         return newList;
@@ -157,11 +343,6 @@ public class StringUtilities {
     }
 
     public static Boolean parseBoolean(String str) {
-        if (!equalsAny(str, "true", "false", "enable", "disable", "yes", "no")) return null;
-
-        if (equalsAny(str, "true", "enable", "yes")) return true;
-        if (equalsAny(str, "false", "disable", "no")) return false;
-
-        return null;
+        return FriendlyBooleans.parseBoolean(str);
     }
 }
@@ -0,0 +1,169 @@
+package io.github.grisstyl.potterplus.api.misc;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * A compact open-addressing map from UUIDs to primitive longs. Keys are stored as their two halves so neither keys nor values are boxed. Not thread-safe.
+ */
+public class UUIDLongMap {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private long[] most, least, values;
+    private boolean[] used;
+
+    private int size;
+
+    public UUIDLongMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, expected * 2) - 1) << 1;
+
+        allocate(capacity);
+    }
+
+    public UUIDLongMap() {
+        this(DEFAULT_CAPACITY / 2);
+    }
+
+    private void allocate(int capacity) {
+        this.most = new long[capacity];
+        this.least = new long[capacity];
+        this.values = new long[capacity];
+        this.used = new boolean[capacity];
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = msb ^ lsb;
+
+        h ^= (h >>> 32);
+        h *= 0x9E3779B97F4A7C15L;
+
+        return (int) (h ^ (h >>> 29));
+    }
+
+    private int indexOf(long msb, long lsb) {
+        int mask = used.length - 1;
+        int i = hash(msb, lsb) & mask;
+
+        while (used[i]) {
+            if (most[i] == msb && least[i] == lsb) {
+                return i;
+            }
+
+            i = (i + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(UUID uuid) {
+        return indexOf(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()) >= 0;
+    }
+
+    /**
+     * Fetches the value mapped to a UUID.
+     * @param uuid The UUID.
+     * @param defaultValue The value to return if the UUID is not mapped.
+     * @return The mapped value or the default.
+     */
+    public long get(UUID uuid, long defaultValue) {
+        int i = indexOf(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+
+        return i < 0 ? defaultValue : values[i];
+    }
+
+    /**
+     * Maps a UUID to a value, replacing any previous value.
+     * @param uuid The UUID.
+     * @param value The value.
+     */
+    public void put(UUID uuid, long value) {
+        insert(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), value);
+    }
+
+    private void insert(long msb, long lsb, long value) {
+        int mask = used.length - 1;
+        int i = hash(msb, lsb) & mask;
+
+        while (used[i]) {
+            if (most[i] == msb && least[i] == lsb) {
+                values[i] = value;
+
+                return;
+            }
+
+            i = (i + 1) & mask;
+        }
+
+        used[i] = true;
+        most[i] = msb;
+        least[i] = lsb;
+        values[i] = value;
+
+        if (++size * 2 > used.length) {
+            resize(used.length << 1);
+        }
+    }
+
+    /**
+     * Removes the mapping for a UUID, if present.
+     * @param uuid The UUID.
+     */
+    public void remove(UUID uuid) {
+        int i = indexOf(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+
+        if (i < 0) {
+            return;
+        }
+
+        int mask = used.length - 1;
+
+        // Shift back following entries of the probe chain so lookups never stop at a hole.
+        int next = (i + 1) & mask;
+
+        while (used[next]) {
+            int ideal = hash(most[next], least[next]) & mask;
+
+            if (((next - ideal) & mask) >= ((next - i) & mask)) {
+                most[i] = most[next];
+                least[i] = least[next];
+                values[i] = values[next];
+                i = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+
+        used[i] = false;
+        size--;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+
+        this.size = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] oldMost = most, oldLeast = least, oldValues = values;
+        boolean[] oldUsed = used;
+
+        allocate(capacity);
+
+        this.size = 0;
+
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                insert(oldMost[i], oldLeast[i], oldValues[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package io.github.grisstyl.potterplus.api.permission;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Caches permission decisions per player and interned permission node, so repeated checks cost one lookup instead of walking Bukkit's permissible chain. Decisions are dropped when a player joins, quits or changes worlds, and expire after a TTL to pick up attachment changes, which Bukkit fires no event for. Call invalidate after changing a player's permissions to apply the change immediately.
+ */
+public class PermissionCache {
+
+    private static final byte UNKNOWN = 0, ALLOWED = 1, DENIED = 2;
+
+    public static final long DEFAULT_TTL = 5000L;
+
+    /**
+     * Listens for the events after which a player's permissions may have changed.
+     */
+    private static class PermissionListener implements Listener {
+
+        @EventHandler(priority = EventPriority.LOWEST)
+        public void onJoin(PlayerJoinEvent event) {
+            invalidate(event.getPlayer());
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onQuit(PlayerQuitEvent event) {
+            invalidate(event.getPlayer());
+        }
+
+        @EventHandler(priority = EventPriority.LOWEST)
+        public void onWorldChange(PlayerChangedWorldEvent event) {
+            invalidate(event.getPlayer());
+        }
+    }
+
+    /**
+     * The decisions of one player, indexed by node id.
+     */
+    private static final class Decisions {
+
+        private final long expiresAt;
+        private volatile byte[] values;
+
+        private Decisions(long expiresAt, int nodes) {
+            this.expiresAt = expiresAt;
+            this.values = new byte[Math.max(8, nodes)];
+        }
+    }
+
+    private static final Map<String, Integer> NODES = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private static final Map<UUID, Decisions> DECISIONS = new ConcurrentHashMap<>();
+
+    private static volatile boolean prepared;
+    private static volatile long ttl = DEFAULT_TTL;
+
+    /**
+     * Registers the listener which invalidates cached decisions. Until this is called, every check goes straight to Bukkit.
+     * @param plugin The plugin to register the listener for.
+     * @param ttl How long decisions are kept, in milliseconds.
+     */
+    public static void prepare(JavaPlugin plugin, long ttl) {
+        prepare(listener -> plugin.getServer().getPluginManager().registerEvents(listener, plugin), ttl);
+    }
+
+    /**
+     * Enables caching with a custom way of registering the invalidating listener, ex. for benchmarks and tests which run without a server.
+     * @param registrar Registers the listener.
+     * @param ttl How long decisions are kept, in milliseconds.
+     */
+    public static void prepare(Consumer<Listener> registrar, long ttl) {
+        PermissionCache.ttl = ttl;
+
+        if (!prepared) {
+            registrar.accept(new PermissionListener());
+
+            prepared = true;
+        }
+
+        invalidateAll();
+    }
+
+    public static void prepare(JavaPlugin plugin) {
+        prepare(plugin, DEFAULT_TTL);
+    }
+
+    /**
+     * Interns a permission node, ignoring case. Hot paths should intern their nodes once and check by id.
+     * @param node The permission node.
+     * @return The id of the node.
+     */
+    public static int intern(String node) {
+        Integer id = NODES.get(node);
+
+        if (id != null) {
+            return id;
+        }
+
+        id = NODES.computeIfAbsent(node.toLowerCase(Locale.ROOT), key -> NEXT_ID.getAndIncrement());
+
+        NODES.putIfAbsent(node, id);
+
+        return id;
+    }
+
+    /**
+     * Checks if a player has a permission, caching the decision.
+     * @param player The player.
+     * @param node The permission node.
+     * @return Whether or not the player has the permission.
+     */
+    public static boolean has(Player player, String node) {
+        return has(player, node, intern(node));
+    }
+
+    /**
+     * Checks if a player has an interned permission, caching the decision.
+     * @param player The player.
+     * @param node The permission node.
+     * @param id The id the node was interned as.
+     * @return Whether or not the player has the permission.
+     */
+    public static boolean has(Player player, String node, int id) {
+        if (!prepared) {
+            return player.hasPermission(node);
+        }
+
+        long now = System.currentTimeMillis();
+        Decisions decisions = DECISIONS.get(player.getUniqueId());
+
+        if (decisions == null || now >= decisions.expiresAt) {
+            decisions = new Decisions(now + ttl, NEXT_ID.get());
+
+            DECISIONS.put(player.getUniqueId(), decisions);
+        }
+
+        byte[] values = decisions.values;
+
+        if (id >= values.length) {
+            values = Arrays.copyOf(values, Math.max(id + 1, values.length * 2));
+
+            decisions.values = values;
+        }
+
+        byte value = values[id];
+
+        if (value == UNKNOWN) {
+            value = player.hasPermission(node) ? ALLOWED : DENIED;
+            values[id] = value;
+        }
+
+        return value == ALLOWED;
+    }
+
+    /**
+     * Drops the cached decisions of a player.
+     * @param player The player.
+     */
+    public static void invalidate(Player player) {
+        DECISIONS.remove(player.getUniqueId());
+    }
+
+    public static void invalidateAll() {
+        DECISIONS.clear();
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.grisstyl.potterplus.companion;
+
+import io.github.grisstyl.potterplus.companion.file.ConfigSnapshot;
+import io.github.grisstyl.potterplus.companion.file.Messages;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.io.IOException;
+
+/**
+ * Copyright (c) 2013-2020 Tyler Grissom
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ControllerState {
+
+    /**
+     * Parses and compiles every file of the controller without modifying the live state. Safe to call off the main thread.
+     * @param controller The controller.
+     * @return The parsed state.
+     * @throws IOException If a file could not be read.
+     * @throws InvalidConfigurationException If a file is not valid YAML.
+     */
+    public static ControllerState parse(PotterPlusController controller) throws IOException, InvalidConfigurationException {
+        long start = System.nanoTime();
+
+        FileConfiguration config = controller.getConfig().parse();
+        ConfigSnapshot configSnapshot = ConfigSnapshot.compile(config);
+        FileConfiguration messagesConfig = controller.getMessages().parse();
+        Messages messages = Messages.compile(messagesConfig);
+
+        return new ControllerState(config, configSnapshot, messagesConfig, messages, System.nanoTime() - start);
+    }
+
+    @Getter
+    private final FileConfiguration config;
+
+    @Getter
+    private final ConfigSnapshot configSnapshot;
+
+    @Getter
+    private final FileConfiguration messagesConfig;
+
+    @Getter
+    private final Messages messages;
+
+    /**
+     * The time it took to parse and compile the state, in nanoseconds.
+     */
+    @Getter
+    private final long parseTime;
+}
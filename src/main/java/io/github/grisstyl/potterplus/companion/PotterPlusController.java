@@ -1,16 +1,31 @@
 package io.github.grisstyl.potterplus.companion;
 
-import com.google.common.collect.ImmutableList;
 import lombok.Getter;
 import lombok.NonNull;
 import org.bukkit.Bukkit;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.plugin.PluginManager;
 import io.github.grisstyl.potterplus.api.misc.PluginLogger;
+import io.github.grisstyl.potterplus.api.misc.PrefixTrie;
+import io.github.grisstyl.potterplus.api.permission.PermissionCache;
+import io.github.grisstyl.potterplus.companion.feature.ClickCombosFeature;
+import io.github.grisstyl.potterplus.companion.feature.Feature;
+import io.github.grisstyl.potterplus.companion.feature.ProgressMenuClickFeature;
+import io.github.grisstyl.potterplus.companion.feature.SpellBindingsFeature;
 import io.github.grisstyl.potterplus.companion.file.ConfigFile;
-import io.github.grisstyl.potterplus.companion.listener.InteractListener;
+import io.github.grisstyl.potterplus.companion.file.ConfigSnapshot;
+import io.github.grisstyl.potterplus.companion.file.ConfigWatcher;
+import io.github.grisstyl.potterplus.companion.file.MessagesFile;
+import io.github.grisstyl.potterplus.companion.index.ConfigIndex;
+import io.github.grisstyl.potterplus.companion.index.ConfigIndexer;
+import io.github.grisstyl.potterplus.companion.integration.MagicIntegration;
+import io.github.grisstyl.potterplus.companion.listener.HeldItemCache;
 
-import java.util.List;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Copyright (c) 2013-2020 Tyler Grissom
@@ -23,31 +38,127 @@ public class PotterPlusController {
     @Getter
     private final ConfigFile config;
 
+    @Getter
+    private final MessagesFile messages;
+
+    @Getter
+    private final MagicIntegration magic;
+
+    @Getter
+    private final HeldItemCache heldItems;
+
+    @Getter
+    private final ConfigWatcher watcher;
+
+    @Getter
+    private final ConfigIndexer indexer;
+
+    /**
+     * Completions for the spell keys of the current index. Only accessed on the main thread.
+     */
+    @Getter
+    private final PrefixTrie spellCompletions;
+
+    private final Map<String, Feature> features;
+    private final Map<String, Feature> featureAliases;
+
+    /**
+     * Runs tasks on the server thread during the next tick.
+     */
+    @Getter
+    private final Executor mainThreadExecutor;
+
+    /**
+     * Runs tasks on the Bukkit scheduler's asynchronous worker threads.
+     */
+    @Getter
+    private final Executor asyncExecutor;
+
     public PotterPlusController(PotterPlusPlugin plugin) {
         this.plugin = plugin;
         this.config = new ConfigFile(this);
+        this.messages = new MessagesFile(this);
+        this.magic = new MagicIntegration(this);
+        this.heldItems = new HeldItemCache(this);
+        this.watcher = new ConfigWatcher(this);
+        this.indexer = new ConfigIndexer(magic.getDataFolder());
+        this.spellCompletions = new PrefixTrie();
+        this.features = new LinkedHashMap<>();
+        this.featureAliases = new HashMap<>();
+        this.mainThreadExecutor = runnable -> Bukkit.getScheduler().runTask(plugin, runnable);
+        this.asyncExecutor = runnable -> Bukkit.getScheduler().runTaskAsynchronously(plugin, runnable);
+
+        Bukkit.getPluginManager().registerEvents(heldItems, plugin);
+        heldItems.refreshAll();
+
+        this.registerFeature(new ProgressMenuClickFeature(this));
+        this.registerFeature(new SpellBindingsFeature(this));
+        this.registerFeature(new ClickCombosFeature(this));
 
         this.load();
+
+        watcher.start();
+
+        this.scanIndex();
+    }
+
+    /**
+     * Rescans the PotterPlus/Magic configuration tree off the main thread, re-parsing only changed files.
+     * @return A future completed off the main thread with the new index.
+     */
+    public CompletableFuture<ConfigIndex> scanIndex() {
+        return indexer.scanAsync().whenComplete((index, e) -> {
+            if (e != null) {
+                PluginLogger.atWarn()
+                        .with("Could not index the Magic configuration: %s", e.getMessage())
+                        .print();
+                return;
+            }
+
+            mainThreadExecutor.execute(() -> spellCompletions.update(index.getSpellKeys()));
+
+            if (config.getSnapshot().isVerbose()) {
+                PluginLogger.atInfo()
+                        .with("Indexed %d spells, %d wands and %d paths from %d files (%d parsed) in %dms.",
+                                index.getSpellKeys().size(), index.getWandKeys().size(), index.getPathKeys().size(),
+                                index.getFileCount(), index.getParsedCount(), index.getScanTime() / 1_000_000L)
+                        .print();
+            }
+        });
+    }
+
+    /**
+     * Registers a feature and indexes its key and aliases for lookup.
+     * @param feature The feature.
+     */
+    public void registerFeature(Feature feature) {
+        features.put(feature.getKey(), feature);
+        featureAliases.put(feature.getKey().toLowerCase(Locale.ROOT), feature);
+
+        for (String alias : feature.getAliases()) {
+            featureAliases.put(alias.toLowerCase(Locale.ROOT), feature);
+        }
+    }
+
+    /**
+     * Fetches a feature by its key or one of its aliases, ignoring case.
+     * @param name The key or alias.
+     * @return The feature, or null if none matches.
+     */
+    public Feature getFeature(String name) {
+        return featureAliases.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    public Collection<Feature> getFeatures() {
+        return Collections.unmodifiableCollection(features.values());
     }
 
     public List<String> getFirstTimeInstructions() {
-        return ImmutableList.of(
-                "| Welcome to PotterPlus!",
-                "------------------------------",
-                " The PotterPlus companion plugin offers features which",
-                " intertwine with the Magic plugin and more specifically",
-                " the PotterPlus configuration. Do /ppc to get started.",
-                " > To bring up these instructions again, perform /ppc instructions",
-                " Requirements:",
-                "  - Magic plugin (https://github.com/elBukkit/MagicPlugin)",
-                "  - PotterPlus config (https://github.com/grisstyl/PotterPlus)",
-                " Optional dependencies:",
-                "  - MagicScan plugin (https://github.com/grisstyl/MagicScan)"
-        );
+        return Arrays.asList(messages.getMessages().formatLines("instructions"));
     }
 
     public void load() {
-        this.registerListeners();
+        this.applyFeatures();
 
         if (config.isFirstInstallation()) {
             for (String s : getFirstTimeInstructions()) {
@@ -56,26 +167,113 @@ public class PotterPlusController {
                         .print();
             }
 
-            FileConfiguration fc = config.getFile();
+            FileConfiguration fc = config.getFileConfiguration();
 
             fc.set("first_installation", false);
 
             config.save();
+            config.recompile();
+        }
+    }
+
+    /**
+     * Enables or disables every registered feature to match the current config snapshot.
+     */
+    public void applyFeatures() {
+        ConfigSnapshot snapshot = config.getSnapshot();
+
+        for (Feature feature : features.values()) {
+            feature.apply(snapshot);
         }
     }
 
-    private void registerListeners() {
-        PluginManager pm = Bukkit.getPluginManager();
+    /**
+     * Parses every file on a worker thread, then swaps the new state in on the next tick. If parsing fails the live state is left untouched.
+     * @return A future completed on the main thread with the applied state, or with the failure if parsing or applying failed. Parsing fails with an IOException or InvalidConfigurationException as the cause, in which case the live state is untouched.
+     */
+    public CompletableFuture<ControllerState> reload() {
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    try {
+                        return ControllerState.parse(this);
+                    } catch (IOException | InvalidConfigurationException e) {
+                        throw new CompletionException(e);
+                    }
+                }, asyncExecutor)
+                .handleAsync((state, e) -> {
+                    // Handled rather than chained with thenApplyAsync, which would complete a failure on the worker thread.
+                    if (e != null) {
+                        throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+                    }
+
+                    applyState(state);
+
+                    return state;
+                }, mainThreadExecutor);
+    }
+
+    /**
+     * Swaps in a fully parsed state and re-resolves everything that depends on it. The parsed files are swapped in before anything which calls out to other plugins, so if re-applying throws, the new files are active in full rather than in part.
+     * @param state The state.
+     */
+    public void applyState(ControllerState state) {
+        messages.apply(state.getMessagesConfig(), state.getMessages());
+
+        PermissionCache.invalidateAll();
+
+        applyConfig(state.getConfig(), state.getConfigSnapshot(), true);
+
+        scanIndex();
+    }
 
-        if (getConfig().isProgressMenuClickEnabled()) {
-            pm.registerEvents(new InteractListener(plugin), plugin);
+    /**
+     * Swaps in a config parsed off the main thread and re-applies what its changed keys affect.
+     * @param configuration The parsed configuration.
+     * @param snapshot The snapshot compiled from the configuration.
+     * @param full Whether to re-apply everything regardless of which keys changed.
+     * @return The changed config paths.
+     */
+    public Set<String> applyConfig(FileConfiguration configuration, ConfigSnapshot snapshot, boolean full) {
+        Set<String> changed = config.getSnapshot().diff(snapshot);
 
+        config.apply(configuration, snapshot);
+
+        if (full || changed.contains("progress_menu_spell")) {
+            magic.reload();
+        }
+
+        if (full) {
+            heldItems.refreshAll();
+        }
+
+        for (Feature feature : features.values()) {
+            if (full || changed.contains("features." + feature.getKey())) {
+                feature.apply(snapshot);
+            }
+        }
+
+        if (!changed.isEmpty() && snapshot.isVerbose()) {
             PluginLogger.atInfo()
-                    .with("Progress menu click feature is enabled. Shift right click with a wand to quickly bring up the progress menu.")
+                    .with("Reloaded config.yml. Changed: %s", String.join(", ", changed))
                     .print();
-        } else {
-            PluginLogger.atInfo()
-                    .with("Progress menu click feature is disabled. This can be enabled in the config.yml.");
         }
+
+        return changed;
+    }
+
+    public void disableFeatures() {
+        for (Feature feature : features.values()) {
+            feature.disable();
+        }
+    }
+
+    /**
+     * Stops the config watcher and disables every feature. Called when the plugin is disabled.
+     */
+    public void unload() {
+        watcher.stop();
+        indexer.shutdown();
+
+        disableFeatures();
     }
 }
@@ -1,8 +1,17 @@
 package io.github.grisstyl.potterplus.companion;
 
+import io.github.grisstyl.potterplus.api.file.YamlSaveQueue;
+import io.github.grisstyl.potterplus.api.misc.SkullProfiles;
+import io.github.grisstyl.potterplus.api.permission.PermissionCache;
 import lombok.Getter;
+import io.github.grisstyl.potterplus.companion.command.PotterPlusCommand;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.annotation.command.Command;
+import org.bukkit.plugin.java.annotation.command.Commands;
+import org.bukkit.permissions.PermissionDefault;
 import org.bukkit.plugin.java.annotation.dependency.Dependency;
+import org.bukkit.plugin.java.annotation.permission.Permission;
+import org.bukkit.plugin.java.annotation.permission.Permissions;
 import org.bukkit.plugin.java.annotation.dependency.SoftDependency;
 import org.bukkit.plugin.java.annotation.plugin.Description;
 import org.bukkit.plugin.java.annotation.plugin.Plugin;
@@ -16,6 +25,12 @@ import org.bukkit.plugin.java.annotation.plugin.author.Author;
 @Author("T0xicTyler")
 @Dependency("Magic")
 @SoftDependency("MagicScan")
+@Commands(@Command(name = "potterplus", aliases = "ppc", desc = "The PotterPlus companion command.", usage = "/ppc"))
+@Permissions({
+        @Permission(name = "potterplus.progressmenu.click", desc = "Open the progress menu by sneak right-clicking a wand.", defaultValue = PermissionDefault.TRUE),
+        @Permission(name = "potterplus.command.cast", desc = "Cast spells with /ppc cast.", defaultValue = PermissionDefault.OP),
+        @Permission(name = "potterplus.command.admin", desc = "Toggle features and reload the plugin with /ppc feature and /ppc reload.", defaultValue = PermissionDefault.OP)
+})
 public class PotterPlusPlugin extends JavaPlugin {
 
     @Getter
@@ -28,9 +43,22 @@ public class PotterPlusPlugin extends JavaPlugin {
     public void onEnable() {
         plugin = this;
 
-        getConfig().options().copyDefaults(true);
         saveDefaultConfig();
 
+        PermissionCache.prepare(this);
+        SkullProfiles.prepare(this);
+
         this.controller = new PotterPlusController(this);
+
+        new PotterPlusCommand(this);
+    }
+
+    @Override
+    public void onDisable() {
+        if (controller != null) {
+            controller.unload();
+        }
+
+        YamlSaveQueue.shared().flush();
     }
 }
@@ -0,0 +1,254 @@
+package io.github.grisstyl.potterplus.companion.binding;
+
+import io.github.grisstyl.potterplus.api.misc.PluginLogger;
+import lombok.EqualsAndHashCode;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.*;
+
+/**
+ * Copyright (c) 2013-2020 Tyler Grissom
+ */
+@EqualsAndHashCode
+public final class BindingTable {
+
+    public static final BindingTable EMPTY = new BindingTable(new Entry[Gesture.SIZE], 0);
+
+    /**
+     * The spells bound to a single packed gesture.
+     */
+    @EqualsAndHashCode
+    private static final class Entry {
+
+        private String spell;
+        private Map<Material, String> materials;
+        private Map<String, String> wands;
+
+        private String lookup(Material material, String wandKey) {
+            if (wandKey != null && wands != null) {
+                String bound = wands.get(wandKey);
+
+                if (bound != null) {
+                    return bound;
+                }
+            }
+
+            if (materials != null) {
+                String bound = materials.get(material);
+
+                if (bound != null) {
+                    return bound;
+                }
+            }
+
+            return spell;
+        }
+    }
+
+    private final Entry[] entries;
+
+    private final int size;
+
+    private BindingTable(Entry[] entries, int size) {
+        this.entries = entries;
+        this.size = size;
+    }
+
+    /**
+     * Fetches the number of bindings compiled into this table.
+     * @return The number of bindings.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Looks up the spell bound to a gesture. Wand key bindings take precedence over material bindings, which take precedence over held item class bindings.
+     * @param gesture The packed gesture.
+     * @param material The held material.
+     * @param wandKey The template key of the held wand, or null.
+     * @return The spell key, or null if nothing is bound.
+     */
+    public String lookup(int gesture, Material material, String wandKey) {
+        Entry entry = entries[gesture];
+
+        return entry == null ? null : entry.lookup(material, wandKey);
+    }
+
+    /**
+     * Compiles the bindings section of the config.yml into a table indexed by packed gestures.
+     * @param section The bindings section, may be null.
+     * @return The compiled table.
+     */
+    public static BindingTable compile(ConfigurationSection section) {
+        if (section == null) {
+            return EMPTY;
+        }
+
+        Entry[] entries = new Entry[Gesture.SIZE];
+        int size = 0;
+
+        for (String name : section.getKeys(false)) {
+            ConfigurationSection binding = section.getConfigurationSection(name);
+
+            if (binding == null) {
+                continue;
+            }
+
+            String spell = binding.getString("spell");
+
+            if (spell == null || spell.isEmpty()) {
+                warn(name, "it has no spell");
+
+                continue;
+            }
+
+            int[] actions = parseActions(binding.getString("action"));
+            boolean[] sneaking = parseFlag(binding, "sneaking");
+            boolean[] offHand = parseHand(binding.getString("hand"));
+            Material material = null;
+            String wand = binding.getString("wand");
+            int[] held;
+
+            if (binding.isSet("material")) {
+                material = Material.matchMaterial(binding.getString("material", ""));
+
+                if (material == null) {
+                    warn(name, "its material is invalid");
+
+                    continue;
+                }
+            }
+
+            if (wand != null) {
+                held = new int[] { Gesture.HELD_WAND };
+            } else if (material != null) {
+                held = new int[] { Gesture.HELD_ITEM, Gesture.HELD_WAND };
+            } else {
+                held = parseHeld(binding.getString("held"));
+            }
+
+            if (actions == null || sneaking == null || offHand == null || held == null) {
+                warn(name, "its action, sneaking, hand or held value is invalid");
+
+                continue;
+            }
+
+            for (int action : actions) {
+                for (boolean sneak : sneaking) {
+                    for (boolean off : offHand) {
+                        for (int h : held) {
+                            int gesture = Gesture.pack(action, sneak, off, h);
+                            Entry entry = entries[gesture];
+
+                            if (entry == null) {
+                                entry = new Entry();
+                                entries[gesture] = entry;
+                            }
+
+                            if (wand != null) {
+                                if (entry.wands == null) {
+                                    entry.wands = new HashMap<>();
+                                }
+
+                                entry.wands.put(wand, spell);
+                            } else if (material != null) {
+                                if (entry.materials == null) {
+                                    entry.materials = new EnumMap<>(Material.class);
+                                }
+
+                                entry.materials.put(material, spell);
+                            } else {
+                                entry.spell = spell;
+                            }
+                        }
+                    }
+                }
+            }
+
+            size++;
+        }
+
+        return size == 0 ? EMPTY : new BindingTable(entries, size);
+    }
+
+    private static void warn(String name, String reason) {
+        PluginLogger.atWarn()
+                .with("Ignoring binding '%s' because %s.", name, reason)
+                .print();
+    }
+
+    private static int[] parseActions(String action) {
+        if (action == null) {
+            return new int[] { Gesture.LEFT_CLICK_AIR, Gesture.LEFT_CLICK_BLOCK, Gesture.RIGHT_CLICK_AIR, Gesture.RIGHT_CLICK_BLOCK };
+        }
+
+        switch (action.toLowerCase(Locale.ROOT)) {
+            case "left_click":
+                return new int[] { Gesture.LEFT_CLICK_AIR, Gesture.LEFT_CLICK_BLOCK };
+            case "right_click":
+                return new int[] { Gesture.RIGHT_CLICK_AIR, Gesture.RIGHT_CLICK_BLOCK };
+            case "left_click_air":
+                return new int[] { Gesture.LEFT_CLICK_AIR };
+            case "left_click_block":
+                return new int[] { Gesture.LEFT_CLICK_BLOCK };
+            case "right_click_air":
+                return new int[] { Gesture.RIGHT_CLICK_AIR };
+            case "right_click_block":
+                return new int[] { Gesture.RIGHT_CLICK_BLOCK };
+            default:
+                return null;
+        }
+    }
+
+    private static boolean[] parseFlag(ConfigurationSection binding, String path) {
+        if (!binding.isSet(path)) {
+            return new boolean[] { false, true };
+        }
+
+        if (!binding.isBoolean(path)) {
+            return null;
+        }
+
+        return new boolean[] { binding.getBoolean(path) };
+    }
+
+    private static boolean[] parseHand(String hand) {
+        if (hand == null) {
+            return new boolean[] { false, true };
+        }
+
+        switch (hand.toLowerCase(Locale.ROOT)) {
+            case "main":
+            case "main_hand":
+                return new boolean[] { false };
+            case "off":
+            case "off_hand":
+                return new boolean[] { true };
+            default:
+                return null;
+        }
+    }
+
+    private static int[] parseHeld(String held) {
+        if (held == null) {
+            return new int[] { Gesture.HELD_EMPTY, Gesture.HELD_ITEM, Gesture.HELD_WAND };
+        }
+
+        switch (held.toLowerCase(Locale.ROOT)) {
+            case "empty":
+                return new int[] { Gesture.HELD_EMPTY };
+            case "item":
+                return new int[] { Gesture.HELD_ITEM };
+            case "wand":
+                return new int[] { Gesture.HELD_WAND };
+            default:
+                return null;
+        }
+    }
+}
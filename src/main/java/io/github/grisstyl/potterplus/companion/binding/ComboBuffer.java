@@ -0,0 +1,75 @@
+package io.github.grisstyl.potterplus.companion.binding;
+
+/**
+ * Copyright (c) 2013-2020 Tyler Grissom
+ */
+public final class ComboBuffer {
+
+    private byte[] codes;
+    private long[] times;
+
+    private int head;
+    private int size;
+
+    public ComboBuffer(int capacity) {
+        this.codes = new byte[Math.max(1, capacity)];
+        this.times = new long[codes.length];
+    }
+
+    public int capacity() {
+        return codes.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Records a click, overwriting the oldest one if the buffer is full.
+     * @param code The click code.
+     * @param time The time of the click in milliseconds.
+     */
+    public void push(byte code, long time) {
+        head = (head + 1) % codes.length;
+        codes[head] = code;
+        times[head] = time;
+
+        if (size < codes.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Fetches the code of a recent click.
+     * @param age 0 for the newest click, 1 for the one before it, etc.
+     * @return The click code.
+     */
+    public byte getCode(int age) {
+        return codes[index(age)];
+    }
+
+    public long getTime(int age) {
+        return times[index(age)];
+    }
+
+    private int index(int age) {
+        int i = head - age;
+
+        return i < 0 ? i + codes.length : i;
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Resizes the buffer, dropping recorded clicks. Only called when the compiled combos change.
+     * @param capacity The new capacity.
+     */
+    public void resize(int capacity) {
+        this.codes = new byte[Math.max(1, capacity)];
+        this.times = new long[codes.length];
+        this.head = 0;
+        this.size = 0;
+    }
+}
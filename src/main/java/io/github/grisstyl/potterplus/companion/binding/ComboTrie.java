@@ -0,0 +1,179 @@
+package io.github.grisstyl.potterplus.companion.binding;
+
+import io.github.grisstyl.potterplus.api.misc.PluginLogger;
+import lombok.EqualsAndHashCode;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Copyright (c) 2013-2020 Tyler Grissom
+ */
+@EqualsAndHashCode
+public final class ComboTrie {
+
+    public static final byte LEFT = 0;
+    public static final byte RIGHT = 1;
+
+    private static final int CODES = 2;
+
+    public static final ComboTrie EMPTY = new ComboTrie(new int[] { -1, -1 }, new String[1], 0, 0);
+
+    /**
+     * Child node indexes, CODES entries per node, -1 where there is no child. Patterns are stored reversed so they can be matched from the newest click backwards.
+     */
+    private final int[] children;
+    private final String[] spells;
+
+    private final int maxLength;
+    private final int size;
+
+    private ComboTrie(int[] children, String[] spells, int maxLength, int size) {
+        this.children = children;
+        this.spells = spells;
+        this.maxLength = maxLength;
+        this.size = size;
+    }
+
+    /**
+     * Fetches the length of the longest combo, i.e. how many clicks a player's buffer needs to hold.
+     * @return The length.
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Matches the longest combo ending at the newest click of a buffer. Does not allocate.
+     * @param buffer The buffer of recent clicks.
+     * @param timeout The maximum number of milliseconds between two clicks of a combo.
+     * @return The spell bound to the matched combo, or null.
+     */
+    public String match(ComboBuffer buffer, long timeout) {
+        int node = 0;
+        String matched = null;
+        long previous = 0L;
+
+        for (int i = 0; i < buffer.size(); i++) {
+            long time = buffer.getTime(i);
+
+            if (i > 0 && previous - time > timeout) {
+                break;
+            }
+
+            node = children[node * CODES + buffer.getCode(i)];
+
+            if (node < 0) {
+                break;
+            }
+
+            if (spells[node] != null) {
+                matched = spells[node];
+            }
+
+            previous = time;
+        }
+
+        return matched;
+    }
+
+    /**
+     * Compiles the combos section of the config.yml, which maps click patterns such as "LLR" to spells.
+     * @param section The combos section, may be null.
+     * @return The compiled trie.
+     */
+    public static ComboTrie compile(ConfigurationSection section) {
+        if (section == null) {
+            return EMPTY;
+        }
+
+        int[] children = new int[CODES * 8];
+        List<String> spells = new ArrayList<>();
+        int maxLength = 0;
+        int size = 0;
+
+        Arrays.fill(children, -1);
+        spells.add(null);
+
+        for (String pattern : section.getKeys(false)) {
+            String spell = section.getString(pattern);
+            byte[] codes = parse(pattern);
+
+            if (spell == null || spell.isEmpty() || codes == null) {
+                PluginLogger.atWarn()
+                        .with("Ignoring combo '%s'. Combos must only contain L and R and be bound to a spell.", pattern)
+                        .print();
+
+                continue;
+            }
+
+            int node = 0;
+
+            for (int i = codes.length - 1; i >= 0; i--) {
+                int slot = node * CODES + codes[i];
+
+                if (children[slot] < 0) {
+                    spells.add(null);
+
+                    int child = spells.size() - 1;
+
+                    if (child * CODES + CODES > children.length) {
+                        int oldLength = children.length;
+
+                        children = Arrays.copyOf(children, oldLength * 2);
+
+                        Arrays.fill(children, oldLength, children.length, -1);
+                    }
+
+                    children[slot] = child;
+                }
+
+                node = children[slot];
+            }
+
+            spells.set(node, spell);
+            maxLength = Math.max(maxLength, codes.length);
+            size++;
+        }
+
+        if (size == 0) {
+            return EMPTY;
+        }
+
+        return new ComboTrie(Arrays.copyOf(children, spells.size() * CODES), spells.toArray(new String[0]), maxLength, size);
+    }
+
+    private static byte[] parse(String pattern) {
+        if (pattern.isEmpty()) {
+            return null;
+        }
+
+        String upper = pattern.toUpperCase(Locale.ROOT);
+        byte[] codes = new byte[upper.length()];
+
+        for (int i = 0; i < upper.length(); i++) {
+            char c = upper.charAt(i);
+
+            if (c == 'L') {
+                codes[i] = LEFT;
+            } else if (c == 'R') {
+                codes[i] = RIGHT;
+            } else {
+                return null;
+            }
+        }
+
+        return codes;
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.grisstyl.potterplus.companion.binding;
+
+import org.bukkit.event.block.Action;
+
+/**
+ * Copyright (c) 2013-2020 Tyler Grissom
+ */
+public final class Gesture {
+
+    public static final int LEFT_CLICK_AIR = 0;
+    public static final int LEFT_CLICK_BLOCK = 1;
+    public static final int RIGHT_CLICK_AIR = 2;
+    public static final int RIGHT_CLICK_BLOCK = 3;
+
+    public static final int HELD_EMPTY = 0;
+    public static final int HELD_ITEM = 1;
+    public static final int HELD_WAND = 2;
+
+    private static final int SNEAKING_BIT = 1 << 2;
+    private static final int OFF_HAND_BIT = 1 << 3;
+    private static final int HELD_SHIFT = 4;
+
+    /**
+     * The number of distinct packed gestures, i.e. the size of a table indexed by them.
+     */
+    public static final int SIZE = 3 << HELD_SHIFT;
+
+    private static final int[] ACTION_CODES = new int[Action.values().length];
+
+    static {
+        for (Action action : Action.values()) {
+            int code;
+
+            switch (action) {
+                case LEFT_CLICK_AIR:
+                    code = LEFT_CLICK_AIR;
+                    break;
+                case LEFT_CLICK_BLOCK:
+                    code = LEFT_CLICK_BLOCK;
+                    break;
+                case RIGHT_CLICK_AIR:
+                    code = RIGHT_CLICK_AIR;
+                    break;
+                case RIGHT_CLICK_BLOCK:
+                    code = RIGHT_CLICK_BLOCK;
+                    break;
+                default:
+                    code = -1;
+                    break;
+            }
+
+            ACTION_CODES[action.ordinal()] = code;
+        }
+    }
+
+    private Gesture() {
+
+    }
+
+    /**
+     * Fetches the gesture code of an interact action.
+     * @param action The action.
+     * @return The code, or -1 if the action cannot be bound (ex. PHYSICAL).
+     */
+    public static int action(Action action) {
+        return ACTION_CODES[action.ordinal()];
+    }
+
+    /**
+     * Packs the components of a gesture into a table index.
+     * @param action The action code.
+     * @param sneaking Whether or not the player is sneaking.
+     * @param offHand Whether or not the gesture was made with the off hand.
+     * @param held The held item class (HELD_EMPTY, HELD_ITEM or HELD_WAND).
+     * @return The packed gesture.
+     */
+    public static int pack(int action, boolean sneaking, boolean offHand, int held) {
+        return action | (sneaking ? SNEAKING_BIT : 0) | (offHand ? OFF_HAND_BIT : 0) | (held << HELD_SHIFT);
+    }
+}
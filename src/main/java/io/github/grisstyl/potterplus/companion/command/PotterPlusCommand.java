@@ -2,137 +2,279 @@ package io.github.grisstyl.potterplus.companion.command;
 
 import io.github.grisstyl.potterplus.api.misc.FriendlyBooleans;
 import io.github.grisstyl.potterplus.companion.PotterPlusController;
+import io.github.grisstyl.potterplus.companion.feature.Feature;
+import com.google.common.collect.ImmutableList;
+import io.github.grisstyl.potterplus.api.misc.PrefixTrie;
 import lombok.NonNull;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import io.github.grisstyl.potterplus.api.command.CommandBase;
 import io.github.grisstyl.potterplus.api.command.CommandContext;
+import io.github.grisstyl.potterplus.api.command.CommandBase.SubCommand;
+import io.github.grisstyl.potterplus.api.command.ArgumentException;
 import io.github.grisstyl.potterplus.api.misc.BooleanFormat;
 import io.github.grisstyl.potterplus.companion.PotterPlusPlugin;
+import io.github.grisstyl.potterplus.companion.file.Messages;
 
-import java.util.List;
-
-import static io.github.grisstyl.potterplus.api.misc.StringUtilities.color;
-import static io.github.grisstyl.potterplus.api.misc.StringUtilities.equalsAny;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletionException;
 
 /**
  * Copyright (c) 2013-2020 Tyler Grissom
  */
 public class PotterPlusCommand extends CommandBase<PotterPlusPlugin> {
 
+    private static final List<String> BOOLEANS = ImmutableList.of("false", "toggle", "true");
+
+    private final SubCommand cast, feature;
+
+    private Messages helpMessages;
+
+    private final PrefixTrie subCommands;
+    private final PrefixTrie features;
+    private final PrefixTrie booleans;
+
     public PotterPlusCommand(@NonNull PotterPlusPlugin plugin) {
         super(plugin);
+
+        this.cast = new SubCommand("cast")
+                .argument("spell", this::parseSpell)
+                .description("Cast a spell of the PotterPlus configuration")
+                .permission("potterplus.command.cast")
+                .playerOnly()
+                .executor(this::cast);
+        this.feature = new SubCommand("feature")
+                .argument("feature", this::parseFeature)
+                .optional("bool", this::parseState)
+                .description("View or modify a feature of PPC")
+                .permission("potterplus.command.admin")
+                .executor(this::feature);
+
+        register(cast);
+        register(feature);
+        register(new SubCommand("features")
+                .executor(context -> context.getSender().sendMessage(getAvailableFeatures())));
+        register(new SubCommand("instructions")
+                .description("View the initial installation instructions")
+                .executor(context -> context.sendMessage(getPlugin().getController().getFirstTimeInstructions())));
+        register(new SubCommand("reload", "load", "refresh")
+                .description("Reload the plugin")
+                .permission("potterplus.command.admin")
+                .executor(this::reload));
+        register(new SubCommand("version", "v")
+                .description("View the plugin and PotterPlus versions")
+                .executor(this::version));
+
+        this.subCommands = new PrefixTrie();
+        this.features = new PrefixTrie();
+        this.booleans = new PrefixTrie(BOOLEANS);
+
+        for (SubCommand sub : getRoot().getChildren()) {
+            subCommands.add(sub.getName());
+        }
+
+        for (Feature registered : plugin.getController().getFeatures()) {
+            features.add(registered.getKey());
+
+            for (String alias : registered.getAliases()) {
+                features.add(alias);
+            }
+        }
     }
 
     @Override
     public String getLabel() {
-        return "io/github/grisstyl/potterplus";
+        return "potterplus";
     }
 
-    public List<String> getHelp() {
-        return color(
-                "&d&l*** &7PotterPlus Companion Plugin &d&l***",
-                "&8&m-------------------------",
-                "  &8> &7/ppc feature <feature> [bool] &8- &6View or modify a feature of PPC",
-                "  &8> &7/ppc instructions &8- &6View the initial installation instructions",
-                "  &8> &7/ppc reload &8- &6Reload the plugin",
-                "  &8> &7/ppc version &8- &6View the plugin and PotterPlus versions"
-        );
+    @Override
+    public String getDisplayLabel() {
+        return "ppc";
     }
 
-    public List<String> getAvailableFeatures() {
-        return color(
-                "&dAvailable features&8:",
-                " &8- &eprogress_menu_click"
-        );
+    private Messages getMessages() {
+        return getPlugin().getController().getMessages().getMessages();
     }
 
     @Override
-    public void execute(CommandContext context) {
-        PotterPlusController controller = getPlugin().getController();
+    public List<String> getHelpHeader() {
+        return Arrays.asList(getMessages().formatLines("help.header"));
+    }
 
-        if (context.getArgs().length == 0) {
-            context.sendMessage(getHelp());
-        } else {
-            String sub = context.getArgs()[0];
+    @Override
+    public String[] getHelp() {
+        Messages messages = getMessages();
 
-            if (equalsAny(sub, "feature")) {
-                if (context.getArgs().length == 1) {
-                    context.sendMessage("&cUsage&8: &7/ppc feature <feature> [bool]");
-                } else {
-                    String feature = context.getArgs()[1];
+        if (messages != helpMessages) {
+            this.helpMessages = messages;
 
-                    if (!equalsAny(feature, "progress_menu_click", "progressmenu", "progressmenuclick")) {
-                        context.sendMessage(getAvailableFeatures());
+            invalidateHelp();
+        }
 
-                        return;
-                    }
+        return super.getHelp();
+    }
 
-                    if (context.getArgs().length == 2) {
-                        if (equalsAny(feature, "progress_menu_click", "progressmenu", "progressmenuclick")) {
-                            context.sendMessage("&dPotterPlus&8> &7That feature is " + BooleanFormat.ENABLED_DISABLED.format(getPlugin().getController().getConfig().isProgressMenuClickEnabled()));
-                        } else {
-                            context.sendMessage(getAvailableFeatures());
-                        }
-                    } else {
-                        String modify;
+    @Override
+    protected void sendPlayerOnly(CommandContext context) {
+        getMessages().send(context.getSender(), "command.player_only");
+    }
 
-                        if (equalsAny("progress_menu_click", "progressmenu", "progressmenuclick")) {
-                            modify = "progress_menu_click";
-                        } else {
-                            context.sendMessage(getAvailableFeatures());
+    @Override
+    protected void sendNoPermission(CommandContext context) {
+        getMessages().send(context.getSender(), "command.no_permission");
+    }
 
-                            return;
-                        }
+    @Override
+    protected void sendUsage(CommandContext context, SubCommand sub) {
+        getMessages().send(context.getSender(), "command.usage", "usage", formatUsage(sub));
+    }
 
-                        String bool = context.getArgs()[2];
-                        FileConfiguration fc = getPlugin().getConfig();
+    public String[] getAvailableFeatures() {
+        Messages messages = getMessages();
+        Collection<Feature> features = getPlugin().getController().getFeatures();
+        String[] lines = new String[features.size() + 1];
+        int i = 0;
 
-                        if (FriendlyBooleans.isFriendlyBoolean(bool) || bool.equalsIgnoreCase("toggle")) {
-                            boolean b;
+        lines[i++] = messages.format("features.header");
 
-                            if (bool.equalsIgnoreCase("toggle")) {
-                                b = !fc.getBoolean("features." + modify, true);
-                            } else {
-                                b = FriendlyBooleans.getFriendlyBoolean(bool);
-                            }
+        for (Feature feature : features) {
+            lines[i++] = messages.format("features.entry", "feature", feature.getKey());
+        }
 
-                            fc.set("features." + modify, b);
+        return lines;
+    }
 
-                            getPlugin().saveConfig();
+    private String parseSpell(CommandContext context, String input) {
+        if (!getPlugin().getController().getMagic().isSpell(input)) {
+            throw new ArgumentException(getMessages().formatLines("command.unknown_spell", "spell", input));
+        }
 
-                            context.sendMessage("&dPotterPlus&8> &7Feature &e" + modify + " &7has been " + BooleanFormat.ENABLED_DISABLED.format(b));
+        return input;
+    }
 
-                            getPlugin().getController().load();
-                        } else {
-                            context.sendMessage("&cValid booleans&8: &etrue&8, &efalse&8, &etoggle");
-                        }
-                    }
-                }
-            } else if (equalsAny(sub, "features")) {
-                context.sendMessage(getAvailableFeatures());
-            } else if (equalsAny(sub, "instructions")) {
-                context.sendMessage(controller.getFirstTimeInstructions());
-            } else if (equalsAny(sub, "reload", "load", "refresh")) {
-                context.sendMessage("&dPotterPlus&8> &7Reloading plugin&8...");
-
-                try {
-                    getPlugin().reloadConfig();
-                } catch (Exception e) {
-                    context.sendMessage("&dPotterPlus&8> &cFailed to reload! Check the console for the issue.");
-
-                    e.printStackTrace();
+    private FriendlyBooleans.State parseState(CommandContext context, String input) {
+        FriendlyBooleans.State state = FriendlyBooleans.parseState(input);
+
+        if (state == null) {
+            throw new ArgumentException(getMessages().formatLines("command.invalid_state", "values", FriendlyBooleans.getHint(true)));
+        }
+
+        return state;
+    }
+
+    private Feature parseFeature(CommandContext context, String input) {
+        Feature feature = getPlugin().getController().getFeature(input);
+
+        if (feature == null) {
+            throw new ArgumentException(getAvailableFeatures());
+        }
+
+        return feature;
+    }
+
+    private void cast(CommandContext context) {
+        getPlugin().getController().getMagic().cast(context.getPlayer(), context.get("spell"));
+    }
+
+    private void feature(CommandContext context) {
+        PotterPlusController controller = getPlugin().getController();
+        CommandSender sender = context.getSender();
+        Feature feature = context.get("feature");
+        FriendlyBooleans.State state = context.get("bool");
+
+        if (state == null) {
+            getMessages().send(sender, "feature.status", "state", BooleanFormat.ENABLED_DISABLED.format(feature.isEnabled()));
+
+            for (String line : feature.getStats()) {
+                sender.sendMessage(line);
+            }
+
+            return;
+        }
+
+        String modify = feature.getKey();
+        FileConfiguration fc = controller.getConfig().getFileConfiguration();
+        boolean b = state.apply(feature.isConfigured(controller.getConfig().getSnapshot()));
+
+        fc.set("features." + modify, b);
+
+        controller.getConfig().save();
+        controller.getConfig().recompile();
+
+        getMessages().send(sender, "feature.changed", "feature", modify, "state", BooleanFormat.ENABLED_DISABLED.format(b));
+
+        controller.applyFeatures();
+    }
+
+    private void reload(CommandContext context) {
+        PotterPlusController controller = getPlugin().getController();
+        CommandSender sender = context.getSender();
+
+        getMessages().send(sender, "reload.start");
+
+        long start = System.nanoTime();
+
+        controller.reload().whenComplete((state, e) -> {
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+                // Only a parse failure leaves the previous configuration in place; past that, the new files are already swapped in.
+                if (cause instanceof IOException || cause instanceof InvalidConfigurationException) {
+                    getMessages().send(sender, "reload.failure");
+                } else {
+                    getMessages().send(sender, "reload.apply_failure");
                 }
-            } else if (equalsAny(sub, "version", "v")) {
-                context.sendMessage("&7Plugin version&8: &e" + getPlugin().getDescription().getVersion());
-                context.sendMessage("&7Config version&8: &cUnknown"); // TODO Read PotterPlus JSON file
+
+                e.printStackTrace();
             } else {
-                context.sendMessage(getHelp());
+                getMessages().send(sender, "reload.success",
+                        "time", String.format("%.1f", (System.nanoTime() - start) / 1_000_000D),
+                        "parse_time", String.format("%.1f", state.getParseTime() / 1_000_000D));
             }
+        });
+    }
+
+    private void version(CommandContext context) {
+        CommandSender sender = context.getSender();
+        String version = getPlugin().getController().getIndexer().getIndex().getVersion();
+
+        getMessages().send(sender, "version.plugin", "version", getPlugin().getDescription().getVersion());
+
+        if (version == null) {
+            getMessages().send(sender, "version.config_unknown");
+        } else {
+            getMessages().send(sender, "version.config", "version", version);
         }
     }
 
     @Override
     public List<String> tab(CommandContext context) {
-        return null;
+        return tab(context.getSender(), context.getCommand(), context.getLabel(), context.getArgs());
+    }
+
+    @Override
+    public List<String> tab(CommandSender sender, Command command, String label, String[] args) {
+        SubCommand sub = args.length > 1 ? getRoot().getChild(args[0]) : null;
+
+        if (args.length == 1) {
+            List<String> completions = subCommands.complete(args[0]);
+
+            completions.removeIf(name -> !getRoot().getChild(name).isPermitted(sender));
+
+            return completions;
+        } else if (sub != null && !sub.isPermitted(sender)) {
+            return Collections.emptyList();
+        } else if (args.length == 2 && sub == feature) {
+            return features.complete(args[1]);
+        } else if (args.length == 2 && sub == cast) {
+            return getPlugin().getController().getSpellCompletions().complete(args[1]);
+        } else if (args.length == 3 && sub == feature) {
+            return booleans.complete(args[2]);
+        } else {
+            return Collections.emptyList();
+        }
     }
 }
@@ -0,0 +1,37 @@
+package io.github.grisstyl.potterplus.companion.feature;
+
+import com.google.common.collect.ImmutableList;
+import io.github.grisstyl.potterplus.companion.PotterPlusController;
+import io.github.grisstyl.potterplus.companion.file.ConfigSnapshot;
+import io.github.grisstyl.potterplus.companion.file.Messages;
+import io.github.grisstyl.potterplus.companion.listener.ComboListener;
+import org.bukkit.event.Listener;
+
+import java.util.List;
+
+/**
+ * Copyright (c) 2013-2020 Tyler Grissom
+ */
+public class ClickCombosFeature extends Feature {
+
+    public ClickCombosFeature(PotterPlusController controller) {
+        super(controller, "click_combos", "combos", "clickcombos");
+    }
+
+    @Override
+    public boolean isConfigured(ConfigSnapshot snapshot) {
+        return snapshot.isClickCombosEnabled();
+    }
+
+    @Override
+    protected List<Listener> createListeners() {
+        return ImmutableList.of(new ComboListener(getController()));
+    }
+
+    @Override
+    public List<String> getStats() {
+        Messages messages = getController().getMessages().getMessages();
+
+        return ImmutableList.of(messages.format("feature.stats.compiled_combos", "count", getController().getConfig().getSnapshot().getCombos().size()));
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.grisstyl.potterplus.companion.feature;
+
+import com.google.common.collect.ImmutableList;
+import io.github.grisstyl.potterplus.api.misc.PluginLogger;
+import io.github.grisstyl.potterplus.companion.PotterPlusController;
+import io.github.grisstyl.potterplus.companion.file.ConfigSnapshot;
+import lombok.Getter;
+import lombok.NonNull;
+import org.bukkit.Bukkit;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.PluginManager;
+
+import java.util.List;
+
+/**
+ * Copyright (c) 2013-2020 Tyler Grissom
+ */
+public abstract class Feature {
+
+    @Getter @NonNull
+    private final PotterPlusController controller;
+
+    /**
+     * The key of the feature, also used as its path under "features" in the config.yml.
+     */
+    @Getter @NonNull
+    private final String key;
+
+    @Getter @NonNull
+    private final List<String> aliases;
+
+    @Getter
+    private boolean enabled;
+
+    private List<Listener> listeners;
+
+    public Feature(PotterPlusController controller, String key, String... aliases) {
+        this.controller = controller;
+        this.key = key;
+        this.aliases = ImmutableList.copyOf(aliases);
+        this.listeners = ImmutableList.of();
+    }
+
+    /**
+     * Checks whether the feature should be enabled according to the supplied config snapshot.
+     * @param snapshot The snapshot.
+     * @return Whether or not the feature is enabled in the config.
+     */
+    public abstract boolean isConfigured(ConfigSnapshot snapshot);
+
+    /**
+     * Creates the listeners owned by this feature. Called each time the feature is enabled.
+     * @return The listeners.
+     */
+    protected abstract List<Listener> createListeners();
+
+    /**
+     * Fetches lines describing the runtime statistics of the feature, shown by /ppc feature.
+     * @return The colored lines.
+     */
+    public List<String> getStats() {
+        return ImmutableList.of();
+    }
+
+    protected void onEnable() {
+
+    }
+
+    protected void onDisable() {
+
+    }
+
+    /**
+     * Enables the feature, registering its listeners exactly once.
+     */
+    public final void enable() {
+        if (enabled) {
+            return;
+        }
+
+        PluginManager pm = Bukkit.getPluginManager();
+
+        this.listeners = createListeners();
+
+        for (Listener listener : listeners) {
+            pm.registerEvents(listener, controller.getPlugin());
+        }
+
+        this.enabled = true;
+
+        onEnable();
+    }
+
+    /**
+     * Disables the feature, unregistering all of its listeners.
+     */
+    public final void disable() {
+        if (!enabled) {
+            return;
+        }
+
+        for (Listener listener : listeners) {
+            HandlerList.unregisterAll(listener);
+        }
+
+        this.listeners = ImmutableList.of();
+        this.enabled = false;
+
+        onDisable();
+    }
+
+    /**
+     * Enables or disables the feature to match the supplied config snapshot. Only an actual transition from enabled to disabled is logged.
+     * @param snapshot The snapshot.
+     */
+    public void apply(ConfigSnapshot snapshot) {
+        if (isConfigured(snapshot)) {
+            enable();
+        } else if (enabled) {
+            disable();
+
+            PluginLogger.atInfo()
+                    .with("Feature '%s' has been disabled. This can be enabled in the config.yml.", key)
+                    .print();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.grisstyl.potterplus.companion.feature;
+
+import com.google.common.collect.ImmutableList;
+import io.github.grisstyl.potterplus.api.misc.PluginLogger;
+import io.github.grisstyl.potterplus.companion.PotterPlusController;
+import io.github.grisstyl.potterplus.companion.file.ConfigSnapshot;
+import io.github.grisstyl.potterplus.companion.file.Messages;
+import io.github.grisstyl.potterplus.companion.listener.ClickThrottle;
+import io.github.grisstyl.potterplus.companion.listener.InteractListener;
+import lombok.Getter;
+import org.bukkit.event.Listener;
+
+import java.util.List;
+
+/**
+ * Copyright (c) 2013-2020 Tyler Grissom
+ */
+public class ProgressMenuClickFeature extends Feature {
+
+    @Getter
+    private final ClickThrottle throttle;
+
+    public ProgressMenuClickFeature(PotterPlusController controller) {
+        super(controller, "progress_menu_click", "progressmenu", "progressmenuclick");
+
+        this.throttle = new ClickThrottle();
+    }
+
+    @Override
+    public boolean isConfigured(ConfigSnapshot snapshot) {
+        return snapshot.isProgressMenuClickEnabled();
+    }
+
+    @Override
+    protected List<Listener> createListeners() {
+        return ImmutableList.of(new InteractListener(getController().getPlugin(), throttle));
+    }
+
+    @Override
+    public List<String> getStats() {
+        Messages messages = getController().getMessages().getMessages();
+
+        return ImmutableList.of(messages.format("feature.stats.suppressed_clicks", "count", throttle.getSuppressed()));
+    }
+
+    @Override
+    protected void onEnable() {
+        throttle.start(getController().getPlugin());
+
+        PluginLogger.atInfo()
+                .with("Progress menu click feature is enabled. Shift right click with a wand to quickly bring up the progress menu.")
+                .print();
+    }
+
+    @Override
+    protected void onDisable() {
+        throttle.stop();
+    }
+}
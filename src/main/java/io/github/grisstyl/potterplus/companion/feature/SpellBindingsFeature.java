@@ -0,0 +1,57 @@
+package io.github.grisstyl.potterplus.companion.feature;
+
+import com.google.common.collect.ImmutableList;
+import io.github.grisstyl.potterplus.companion.PotterPlusController;
+import io.github.grisstyl.potterplus.companion.file.ConfigSnapshot;
+import io.github.grisstyl.potterplus.companion.file.Messages;
+import io.github.grisstyl.potterplus.companion.listener.BindingListener;
+import io.github.grisstyl.potterplus.companion.listener.ClickThrottle;
+import lombok.Getter;
+import org.bukkit.event.Listener;
+
+import java.util.List;
+
+/**
+ * Copyright (c) 2013-2020 Tyler Grissom
+ */
+public class SpellBindingsFeature extends Feature {
+
+    @Getter
+    private final ClickThrottle throttle;
+
+    public SpellBindingsFeature(PotterPlusController controller) {
+        super(controller, "spell_bindings", "bindings", "spellbindings");
+
+        this.throttle = new ClickThrottle();
+    }
+
+    @Override
+    public boolean isConfigured(ConfigSnapshot snapshot) {
+        return snapshot.isSpellBindingsEnabled();
+    }
+
+    @Override
+    protected List<Listener> createListeners() {
+        return ImmutableList.of(new BindingListener(getController(), throttle));
+    }
+
+    @Override
+    public List<String> getStats() {
+        Messages messages = getController().getMessages().getMessages();
+
+        return ImmutableList.of(
+                messages.format("feature.stats.compiled_bindings", "count", getController().getConfig().getSnapshot().getBindings().size()),
+                messages.format("feature.stats.suppressed_clicks", "count", throttle.getSuppressed())
+        );
+    }
+
+    @Override
+    protected void onEnable() {
+        throttle.start(getController().getPlugin());
+    }
+
+    @Override
+    protected void onDisable() {
+        throttle.stop();
+    }
+}
@@ -1,37 +1,89 @@
 package io.github.grisstyl.potterplus.companion.file;
 
+import io.github.grisstyl.potterplus.api.file.PluginYamlFile;
 import io.github.grisstyl.potterplus.companion.PotterPlusController;
+import io.github.grisstyl.potterplus.companion.PotterPlusPlugin;
 import lombok.Getter;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 
+import java.io.IOException;
+
 /**
  * Copyright (c) 2013-2020 Tyler Grissom
  */
-@RequiredArgsConstructor
-public class ConfigFile {
+public class ConfigFile extends PluginYamlFile<PotterPlusPlugin> {
 
     @Getter @NonNull
     private final PotterPlusController controller;
 
-    public FileConfiguration getFile() {
-        return controller.getPlugin().getConfig();
+    private volatile ConfigSnapshot snapshot;
+
+    public ConfigFile(PotterPlusController controller) {
+        super(controller.getPlugin(), "config.yml");
+
+        this.controller = controller;
+
+        this.reload();
+    }
+
+    /**
+     * Re-reads the config.yml, compiles it into a new snapshot and swaps both in.
+     */
+    @Override
+    public void reload() {
+        super.reload();
+
+        getFileConfiguration().options().copyDefaults(true);
+
+        this.snapshot = ConfigSnapshot.compile(getFileConfiguration());
+    }
+
+    /**
+     * Compiles the current FileConfiguration into a new snapshot and swaps it in, without re-reading the file.
+     */
+    public void recompile() {
+        this.snapshot = ConfigSnapshot.compile(getFileConfiguration());
+    }
+
+    @Override
+    public FileConfiguration parse() throws IOException, InvalidConfigurationException {
+        FileConfiguration configuration = super.parse();
+
+        configuration.options().copyDefaults(true);
+
+        return configuration;
+    }
+
+    /**
+     * Swaps in a configuration parsed off the main thread along with its compiled snapshot.
+     * @param configuration The configuration.
+     * @param snapshot The snapshot compiled from the configuration.
+     */
+    public void apply(FileConfiguration configuration, ConfigSnapshot snapshot) {
+        super.apply(configuration);
+
+        this.snapshot = snapshot;
     }
 
-    public void save() {
-        controller.getPlugin().saveConfig();
+    /**
+     * Fetches the current compiled snapshot of the config. Safe to call from any thread.
+     * @return The snapshot.
+     */
+    public ConfigSnapshot getSnapshot() {
+        return snapshot;
     }
 
     public boolean isFirstInstallation() {
-        return getFile().getBoolean("first_installation", true);
+        return getSnapshot().isFirstInstallation();
     }
 
     public boolean isProgressMenuClickEnabled() {
-        return getFile().getBoolean("features.progress_menu_click", true);
+        return getSnapshot().isProgressMenuClickEnabled();
     }
 
     public String getProgressMenuSpell() {
-        return getFile().getString("progress_menu_spell", "progressmenu");
+        return getSnapshot().getProgressMenuSpell();
     }
 }
@@ -0,0 +1,119 @@
+package io.github.grisstyl.potterplus.companion.file;
+
+import io.github.grisstyl.potterplus.companion.binding.BindingTable;
+import io.github.grisstyl.potterplus.companion.binding.ComboTrie;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Copyright (c) 2013-2020 Tyler Grissom
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ConfigSnapshot {
+
+    /**
+     * Compiles the values of a config.yml into an immutable snapshot. Hot paths should read from the snapshot instead of walking the FileConfiguration.
+     * @param fc The configuration to compile.
+     * @return The snapshot.
+     */
+    public static ConfigSnapshot compile(FileConfiguration fc) {
+        return new ConfigSnapshot(
+                fc.getBoolean("first_installation", true),
+                fc.getBoolean("verbose", true),
+                fc.getString("progress_menu_spell", "progressmenu"),
+                Math.max(0L, fc.getLong("progress_menu_cooldown", 500L)),
+                Math.max(0, fc.getInt("progress_menu_dedupe_ticks", 1)),
+                fc.getBoolean("features.progress_menu_click", true),
+                Math.max(0L, fc.getLong("binding_cooldown", 250L)),
+                BindingTable.compile(fc.getConfigurationSection("bindings")),
+                fc.getBoolean("features.spell_bindings", true),
+                Math.max(0L, fc.getLong("combo_timeout", 750L)),
+                ComboTrie.compile(fc.getConfigurationSection("combos")),
+                fc.getBoolean("features.click_combos", true)
+        );
+    }
+
+    @Getter
+    private final boolean firstInstallation;
+
+    @Getter
+    private final boolean verbose;
+
+    @Getter
+    private final String progressMenuSpell;
+
+    /**
+     * The minimum number of milliseconds between two progress menu clicks of the same player.
+     */
+    @Getter
+    private final long progressMenuCooldown;
+
+    /**
+     * The number of ticks after a progress menu click in which further clicks of the same player are dropped.
+     */
+    @Getter
+    private final int progressMenuDedupeTicks;
+
+    @Getter
+    private final boolean progressMenuClickEnabled;
+
+    /**
+     * The minimum number of milliseconds between two bound spell casts of the same player.
+     */
+    @Getter
+    private final long bindingCooldown;
+
+    @Getter
+    private final BindingTable bindings;
+
+    @Getter
+    private final boolean spellBindingsEnabled;
+
+    /**
+     * The maximum number of milliseconds between two clicks of a combo.
+     */
+    @Getter
+    private final long comboTimeout;
+
+    @Getter
+    private final ComboTrie combos;
+
+    @Getter
+    private final boolean clickCombosEnabled;
+
+    /**
+     * Computes the config paths whose compiled values differ between this snapshot and another.
+     * @param other The snapshot to compare with.
+     * @return The changed paths, empty if both snapshots are equivalent.
+     */
+    public Set<String> diff(ConfigSnapshot other) {
+        Set<String> changed = new LinkedHashSet<>();
+
+        compare(changed, "first_installation", firstInstallation, other.firstInstallation);
+        compare(changed, "verbose", verbose, other.verbose);
+        compare(changed, "progress_menu_spell", progressMenuSpell, other.progressMenuSpell);
+        compare(changed, "progress_menu_cooldown", progressMenuCooldown, other.progressMenuCooldown);
+        compare(changed, "progress_menu_dedupe_ticks", progressMenuDedupeTicks, other.progressMenuDedupeTicks);
+        compare(changed, "features.progress_menu_click", progressMenuClickEnabled, other.progressMenuClickEnabled);
+        compare(changed, "binding_cooldown", bindingCooldown, other.bindingCooldown);
+        compare(changed, "bindings", bindings, other.bindings);
+        compare(changed, "features.spell_bindings", spellBindingsEnabled, other.spellBindingsEnabled);
+        compare(changed, "combo_timeout", comboTimeout, other.comboTimeout);
+        compare(changed, "combos", combos, other.combos);
+        compare(changed, "features.click_combos", clickCombosEnabled, other.clickCombosEnabled);
+
+        return changed;
+    }
+
+    private static void compare(Set<String> changed, String path, Object a, Object b) {
+        if (!Objects.equals(a, b)) {
+            changed.add(path);
+        }
+    }
+}
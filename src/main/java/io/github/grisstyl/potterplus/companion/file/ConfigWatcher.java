@@ -0,0 +1,163 @@
+package io.github.grisstyl.potterplus.companion.file;
+
+import io.github.grisstyl.potterplus.api.file.YamlSaveQueue;
+import io.github.grisstyl.potterplus.api.misc.PluginLogger;
+import io.github.grisstyl.potterplus.companion.PotterPlusController;
+import lombok.Getter;
+import lombok.NonNull;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.concurrent.*;
+
+/**
+ * Copyright (c) 2013-2020 Tyler Grissom
+ */
+public class ConfigWatcher {
+
+    private static final long DEBOUNCE_MILLIS = 500L;
+
+    @Getter @NonNull
+    private final PotterPlusController controller;
+
+    private WatchService watchService;
+    private Thread thread;
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> pendingParse;
+
+    private String lastContents;
+
+    public ConfigWatcher(PotterPlusController controller) {
+        this.controller = controller;
+    }
+
+    /**
+     * Starts watching the plugin data folder for changes to the config.yml.
+     */
+    public void start() {
+        if (thread != null) {
+            return;
+        }
+
+        Path folder = controller.getPlugin().getDataFolder().toPath();
+
+        try {
+            this.watchService = folder.getFileSystem().newWatchService();
+
+            folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            PluginLogger.atWarn()
+                    .with("Could not watch the config.yml for changes: %s", e.getMessage())
+                    .print();
+
+            return;
+        }
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "PotterPlus Config Parser");
+
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        this.thread = new Thread(this::watch, "PotterPlus Config Watcher");
+
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        if (thread == null) {
+            return;
+        }
+
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+
+        }
+
+        executor.shutdownNow();
+
+        this.thread = null;
+        this.watchService = null;
+        this.executor = null;
+    }
+
+    private void watch() {
+        WatchService watchService = this.watchService;
+        String fileName = controller.getConfig().getFileName();
+
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Object context = event.context();
+
+                    if (context instanceof Path && fileName.equals(context.toString())) {
+                        scheduleParse();
+                    }
+                }
+
+                if (!key.reset()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+
+        }
+    }
+
+    private synchronized void scheduleParse() {
+        if (pendingParse != null) {
+            pendingParse.cancel(false);
+        }
+
+        try {
+            this.pendingParse = executor.schedule(this::parse, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ignored) {
+
+        }
+    }
+
+    private void parse() {
+        ConfigFile config = controller.getConfig();
+        File file = config.getFile();
+
+        if (file == null || !file.exists()) {
+            return;
+        }
+
+        try {
+            String contents = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+
+            // Skip our own saves and editor events that did not change the contents.
+            if (contents.equals(lastContents) || contents.equals(YamlSaveQueue.shared().getWrittenContents(file))) {
+                this.lastContents = contents;
+
+                return;
+            }
+
+            this.lastContents = contents;
+
+            FileConfiguration parsed = config.parse();
+            ConfigSnapshot snapshot = ConfigSnapshot.compile(parsed);
+
+            if (snapshot.diff(config.getSnapshot()).isEmpty()) {
+                return;
+            }
+
+            Bukkit.getScheduler().runTask(controller.getPlugin(), () -> controller.applyConfig(parsed, snapshot, false));
+        } catch (Exception e) {
+            PluginLogger.atWarn()
+                    .with("Could not reload the changed config.yml, keeping the current one: %s", e.getMessage())
+                    .print();
+        }
+    }
+}
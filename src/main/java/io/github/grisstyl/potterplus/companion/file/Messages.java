@@ -0,0 +1,116 @@
+package io.github.grisstyl.potterplus.companion.file;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.github.grisstyl.potterplus.api.misc.MessageTemplate;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Copyright (c) 2013-2020 Tyler Grissom
+ */
+public final class Messages {
+
+    /**
+     * Compiles every message of a messages.yml into templates. $prefix is inlined into every message.
+     * @param configuration The configuration, with the defaults of the JAR. Keys only present in the defaults are compiled as well.
+     * @return The compiled messages.
+     */
+    public static Messages compile(FileConfiguration configuration) {
+        Map<String, String> constants = ImmutableMap.of("prefix", configuration.getString("prefix", ""));
+        ImmutableMap.Builder<String, List<MessageTemplate>> messages = ImmutableMap.builder();
+
+        // The file of an older install lacks newer keys, so walk the defaults too rather than relying on copyDefaults.
+        Set<String> keys = new LinkedHashSet<>(configuration.getKeys(true));
+
+        if (configuration.getDefaults() != null) {
+            keys.addAll(configuration.getDefaults().getKeys(true));
+        }
+
+        for (String key : keys) {
+            if (key.equals("prefix") || configuration.get(key) instanceof ConfigurationSection) {
+                continue;
+            }
+
+            ImmutableList.Builder<MessageTemplate> lines = ImmutableList.builder();
+
+            if (configuration.isList(key)) {
+                for (String line : configuration.getStringList(key)) {
+                    lines.add(MessageTemplate.compile(line, constants));
+                }
+            } else {
+                lines.add(MessageTemplate.compile(configuration.getString(key, ""), constants));
+            }
+
+            messages.put(key, lines.build());
+        }
+
+        return new Messages(messages.build());
+    }
+
+    private final Map<String, List<MessageTemplate>> messages;
+
+    private Messages(Map<String, List<MessageTemplate>> messages) {
+        this.messages = messages;
+    }
+
+    /**
+     * Fetches the lines of a message.
+     * @param key The key of the message.
+     * @return The lines, or the key itself if the message is missing.
+     */
+    public List<MessageTemplate> get(String key) {
+        List<MessageTemplate> lines = messages.get(key);
+
+        return lines == null ? ImmutableList.of(MessageTemplate.compile(key)) : lines;
+    }
+
+    /**
+     * Formats the first line of a message.
+     * @param key The key of the message.
+     * @param values Alternating placeholder names and values.
+     * @return The formatted line.
+     */
+    public String format(String key, Object... values) {
+        return get(key).get(0).format(values);
+    }
+
+    /**
+     * Formats every line of a message.
+     * @param key The key of the message.
+     * @param values Alternating placeholder names and values.
+     * @return The formatted lines.
+     */
+    public String[] formatLines(String key, Object... values) {
+        List<MessageTemplate> lines = get(key);
+        String[] formatted = new String[lines.size()];
+
+        for (int i = 0; i < formatted.length; i++) {
+            formatted[i] = lines.get(i).format(values);
+        }
+
+        return formatted;
+    }
+
+    /**
+     * Sends every line of a message.
+     * @param sender The recipient.
+     * @param key The key of the message.
+     * @param values Alternating placeholder names and values.
+     */
+    public void send(CommandSender sender, String key, Object... values) {
+        for (MessageTemplate line : get(key)) {
+            sender.sendMessage(line.format(values));
+        }
+    }
+
+    public int size() {
+        return messages.size();
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.grisstyl.potterplus.companion.file;
+
+import io.github.grisstyl.potterplus.api.file.PluginYamlFile;
+import io.github.grisstyl.potterplus.companion.PotterPlusController;
+import io.github.grisstyl.potterplus.companion.PotterPlusPlugin;
+import lombok.Getter;
+import lombok.NonNull;
+import org.bukkit.configuration.file.FileConfiguration;
+
+/**
+ * Copyright (c) 2013-2020 Tyler Grissom
+ */
+public class MessagesFile extends PluginYamlFile<PotterPlusPlugin> {
+
+    @Getter @NonNull
+    private final PotterPlusController controller;
+
+    private volatile Messages messages;
+
+    public MessagesFile(PotterPlusController controller) {
+        super(controller.getPlugin(), "messages.yml");
+
+        this.controller = controller;
+
+        this.saveDefault();
+        this.reload();
+    }
+
+    /**
+     * Re-reads the messages.yml, compiles it and swaps both in.
+     */
+    @Override
+    public void reload() {
+        super.reload();
+
+        this.messages = Messages.compile(getFileConfiguration());
+    }
+
+    /**
+     * Swaps in a configuration parsed off the main thread along with its compiled messages.
+     * @param configuration The configuration.
+     * @param messages The messages compiled from the configuration.
+     */
+    public void apply(FileConfiguration configuration, Messages messages) {
+        super.apply(configuration);
+
+        this.messages = messages;
+    }
+
+    /**
+     * Fetches the current compiled messages. Safe to call from any thread.
+     * @return The messages.
+     */
+    public Messages getMessages() {
+        return messages;
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.grisstyl.potterplus.companion.index;
+
+import com.google.common.collect.ImmutableSortedSet;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Copyright (c) 2013-2020 Tyler Grissom
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public final class ConfigIndex {
+
+    public static final ConfigIndex EMPTY = new ConfigIndex(null, ImmutableSortedSet.of(), ImmutableSortedSet.of(), ImmutableSortedSet.of(), 0, 0, 0L);
+
+    /**
+     * The version of the PotterPlus configuration, or null if it could not be found.
+     */
+    @Getter
+    private final String version;
+
+    @Getter
+    private final ImmutableSortedSet<String> spellKeys;
+
+    @Getter
+    private final ImmutableSortedSet<String> wandKeys;
+
+    @Getter
+    private final ImmutableSortedSet<String> pathKeys;
+
+    /**
+     * The number of files indexed.
+     */
+    @Getter
+    private final int fileCount;
+
+    /**
+     * The number of files that had to be parsed during the scan that produced this index.
+     */
+    @Getter
+    private final int parsedCount;
+
+    /**
+     * The time the scan took, in nanoseconds.
+     */
+    @Getter
+    private final long scanTime;
+}
@@ -0,0 +1,296 @@
+package io.github.grisstyl.potterplus.companion.index;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.github.grisstyl.potterplus.api.misc.PluginLogger;
+import lombok.Getter;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.CRC32;
+
+/**
+ * Copyright (c) 2013-2020 Tyler Grissom
+ */
+public class ConfigIndexer {
+
+    private enum Category {
+
+        SPELLS, WANDS, PATHS, VERSION, OTHER
+    }
+
+    /**
+     * What was extracted from a single file, along with what is needed to tell if it changed.
+     */
+    private static final class FileEntry {
+
+        private final long modified;
+        private final long length;
+        private final long hash;
+        private final Category category;
+        private final List<String> keys;
+        private final String version;
+
+        private FileEntry(long modified, long length, long hash, Category category, List<String> keys, String version) {
+            this.modified = modified;
+            this.length = length;
+            this.hash = hash;
+            this.category = category;
+            this.keys = keys;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Scans a directory, forking a task for each of its sub-directories.
+     */
+    private final class ScanTask extends RecursiveTask<Integer> {
+
+        private final File directory;
+
+        private ScanTask(File directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected Integer compute() {
+            File[] children = directory.listFiles();
+
+            if (children == null) {
+                return 0;
+            }
+
+            List<ScanTask> subtasks = new ArrayList<>();
+            int parsed = 0;
+
+            for (File child : children) {
+                if (child.isDirectory()) {
+                    ScanTask task = new ScanTask(child);
+
+                    task.fork();
+                    subtasks.add(task);
+                } else if (isIndexable(child.getName())) {
+                    Category category = categorize(child);
+
+                    if (category != Category.OTHER) {
+                        parsed += index(child, category) ? 1 : 0;
+                    }
+                }
+            }
+
+            for (ScanTask task : subtasks) {
+                parsed += task.join();
+            }
+
+            return parsed;
+        }
+    }
+
+    private final File root;
+    private final ForkJoinPool pool;
+
+    private final Map<File, FileEntry> entries;
+    private final Set<File> seen;
+
+    @Getter
+    private volatile ConfigIndex index;
+
+    /**
+     * Creates an indexer for a configuration directory.
+     * @param root The directory to index, ex. Magic's data folder. May be null if Magic is unavailable.
+     */
+    public ConfigIndexer(File root) {
+        this.root = root;
+        this.pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        this.entries = new ConcurrentHashMap<>();
+        this.seen = ConcurrentHashMap.newKeySet();
+        this.index = ConfigIndex.EMPTY;
+    }
+
+    /**
+     * Scans the directory on the indexer's fork-join pool. Only files whose size, modification time and content hash changed since the last scan are parsed again.
+     * @return A future completed off the main thread with the new index.
+     */
+    public CompletableFuture<ConfigIndex> scanAsync() {
+        return CompletableFuture.supplyAsync(this::scan, pool);
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private synchronized ConfigIndex scan() {
+        if (root == null || !root.isDirectory()) {
+            return index;
+        }
+
+        long start = System.nanoTime();
+
+        seen.clear();
+
+        int parsed = pool.invoke(new ScanTask(root));
+
+        entries.keySet().retainAll(seen);
+
+        String version = null;
+        Set<String> spells = new HashSet<>(), wands = new HashSet<>(), paths = new HashSet<>();
+
+        for (FileEntry entry : entries.values()) {
+            switch (entry.category) {
+                case SPELLS:
+                    spells.addAll(entry.keys);
+                    break;
+                case WANDS:
+                    wands.addAll(entry.keys);
+                    break;
+                case PATHS:
+                    paths.addAll(entry.keys);
+                    break;
+                case VERSION:
+                    version = entry.version != null ? entry.version : version;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        this.index = new ConfigIndex(
+                version,
+                ImmutableSortedSet.copyOf(spells),
+                ImmutableSortedSet.copyOf(wands),
+                ImmutableSortedSet.copyOf(paths),
+                entries.size(),
+                parsed,
+                System.nanoTime() - start
+        );
+
+        return index;
+    }
+
+    private static boolean isIndexable(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+
+        return lower.endsWith(".yml") || lower.endsWith(".yaml") || lower.equals("potterplus.json");
+    }
+
+    /**
+     * Indexes a file unless it is unchanged since the last scan.
+     * @param file The file.
+     * @param category The category of the file.
+     * @return Whether or not the file had to be parsed.
+     */
+    private boolean index(File file, Category category) {
+        seen.add(file);
+
+        FileEntry previous = entries.get(file);
+        long modified = file.lastModified();
+        long length = file.length();
+
+        if (previous != null && previous.modified == modified && previous.length == length) {
+            return false;
+        }
+
+        try {
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            CRC32 crc = new CRC32();
+
+            crc.update(bytes);
+
+            long hash = crc.getValue();
+
+            if (previous != null && previous.hash == hash) {
+                entries.put(file, new FileEntry(modified, length, hash, previous.category, previous.keys, previous.version));
+
+                return false;
+            }
+
+            entries.put(file, parse(category, new String(bytes, StandardCharsets.UTF_8), modified, length, hash));
+
+            return true;
+        } catch (IOException | InvalidConfigurationException | RuntimeException e) {
+            entries.remove(file);
+
+            PluginLogger.atWarn()
+                    .with("Could not index '%s': %s", file.getPath(), e.getMessage())
+                    .print();
+
+            return true;
+        }
+    }
+
+    private FileEntry parse(Category category, String contents, long modified, long length, long hash) throws InvalidConfigurationException {
+        if (category == Category.VERSION) {
+            JsonElement element = new JsonParser().parse(contents);
+            String version = null;
+
+            if (element.isJsonObject()) {
+                JsonObject object = element.getAsJsonObject();
+
+                if (object.has("version")) {
+                    version = object.get("version").getAsString();
+                }
+            }
+
+            return new FileEntry(modified, length, hash, category, ImmutableList.of(), version);
+        }
+
+        YamlConfiguration configuration = new YamlConfiguration();
+
+        configuration.loadFromString(contents);
+
+        Set<String> keys = new LinkedHashSet<>();
+
+        for (String key : configuration.getKeys(false)) {
+            int level = key.indexOf('|');
+
+            keys.add(level < 0 ? key : key.substring(0, level));
+        }
+
+        return new FileEntry(modified, length, hash, category, ImmutableList.copyOf(keys), null);
+    }
+
+    /**
+     * Categorizes a Magic configuration file by its name (ex. spells.yml) or the name of a folder containing it (ex. spells/potions.yml).
+     * @param file The file.
+     * @return The category.
+     */
+    private Category categorize(File file) {
+        if (file.getName().equalsIgnoreCase("potterplus.json")) {
+            return Category.VERSION;
+        }
+
+        File current = file;
+
+        while (current != null && !current.equals(root)) {
+            String name = current.getName().toLowerCase(Locale.ROOT);
+            int dot = name.indexOf('.');
+
+            switch (dot < 0 ? name : name.substring(0, dot)) {
+                case "spells":
+                    return Category.SPELLS;
+                case "wands":
+                    return Category.WANDS;
+                case "paths":
+                    return Category.PATHS;
+                default:
+                    break;
+            }
+
+            current = current.getParentFile();
+        }
+
+        return Category.OTHER;
+    }
+}
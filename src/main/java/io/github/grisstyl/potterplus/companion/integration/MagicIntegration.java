@@ -1,12 +1,24 @@
 package io.github.grisstyl.potterplus.companion.integration;
 
+import com.elmakers.mine.bukkit.api.magic.Mage;
+import com.elmakers.mine.bukkit.api.magic.MagicAPI;
+import com.elmakers.mine.bukkit.api.spell.Spell;
+import com.elmakers.mine.bukkit.api.spell.SpellTemplate;
+import com.elmakers.mine.bukkit.api.wand.Wand;
 import io.github.grisstyl.potterplus.companion.PotterPlusController;
 import lombok.Getter;
 import lombok.NonNull;
 import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.PluginManager;
 import io.github.grisstyl.potterplus.api.misc.PluginLogger;
 
+import java.io.File;
+import java.util.Set;
+
 /**
  * Copyright (c) 2013-2020 Tyler Grissom
  */
@@ -15,6 +27,12 @@ public class MagicIntegration {
     @Getter @NonNull
     private final PotterPlusController controller;
 
+    @Getter
+    private MagicAPI api;
+
+    @Getter
+    private SpellTemplate progressMenuTemplate;
+
     public MagicIntegration(PotterPlusController controller) {
         this.controller = controller;
 
@@ -25,5 +43,142 @@ public class MagicIntegration {
                     .with("Magic found. The integration will be set up.")
                     .print();
         }
+
+        this.reload();
+    }
+
+    /**
+     * Resolves the Magic API handle and the spell templates used by the companion. Called at load and on every reload. Magic may not have loaded its spells yet at load, so a template which can't be found here is resolved again when it is first needed.
+     */
+    public void reload() {
+        Plugin plugin = Bukkit.getPluginManager().getPlugin("Magic");
+
+        this.api = plugin instanceof MagicAPI ? (MagicAPI) plugin : null;
+        this.progressMenuTemplate = null;
+
+        String spell = controller.getConfig().getProgressMenuSpell();
+
+        if (api == null) {
+            PluginLogger.atWarn()
+                    .with("Could not hook into the Magic API. Spells will be cast through console commands.")
+                    .print();
+
+            return;
+        }
+
+        this.progressMenuTemplate = api.getController().getSpellTemplate(spell);
+
+        if (progressMenuTemplate == null) {
+            PluginLogger.atWarn()
+                    .with("Could not find the progress menu spell '%s'. It will be cast through console commands.", spell)
+                    .print();
+        }
+    }
+
+    /**
+     * Fetches the data folder of the Magic plugin, which holds its configuration tree.
+     * @return The folder, or null if Magic is not installed.
+     */
+    public File getDataFolder() {
+        Plugin plugin = Bukkit.getPluginManager().getPlugin("Magic");
+
+        return plugin == null ? null : plugin.getDataFolder();
+    }
+
+    /**
+     * Checks if an item is a Magic wand. Returns false if the Magic API is unavailable.
+     * @param item The item to check.
+     * @return Whether or not the item is a wand.
+     */
+    public boolean isWand(ItemStack item) {
+        if (api == null || item == null || item.getType() == Material.AIR) {
+            return false;
+        }
+
+        return api.isWand(item);
+    }
+
+    /**
+     * Fetches the template key of a wand item.
+     * @param item The wand item.
+     * @return The template key, or null if the item is not a wand.
+     */
+    public String getWandKey(ItemStack item) {
+        if (!isWand(item)) {
+            return null;
+        }
+
+        Wand wand = api.getWand(item);
+
+        return wand == null ? null : wand.getTemplateKey();
+    }
+
+    /**
+     * Checks if a spell exists. Falls back to the indexed spell keys if the Magic API is unavailable, and accepts any key if the index is empty.
+     * @param spellKey The key of the spell.
+     * @return Whether or not the spell exists.
+     */
+    public boolean isSpell(String spellKey) {
+        if (api != null) {
+            return api.getController().getSpellTemplate(spellKey) != null;
+        }
+
+        Set<String> indexed = controller.getIndexer().getIndex().getSpellKeys();
+
+        return indexed.isEmpty() || indexed.contains(spellKey);
+    }
+
+    /**
+     * Fetches the progress menu spell template, looking it up again if it could not be resolved before.
+     * @return The template, or null if the spell still doesn't exist or the Magic API is unavailable.
+     */
+    private SpellTemplate resolveProgressMenuTemplate() {
+        if (progressMenuTemplate == null && api != null) {
+            this.progressMenuTemplate = api.getController().getSpellTemplate(controller.getConfig().getProgressMenuSpell());
+        }
+
+        return progressMenuTemplate;
+    }
+
+    /**
+     * Casts the configured progress menu spell on the player's Mage.
+     * @param player The player to cast as.
+     */
+    public void castProgressMenu(Player player) {
+        SpellTemplate progressMenuTemplate = resolveProgressMenuTemplate();
+
+        if (progressMenuTemplate == null) {
+            castCommand(player, controller.getConfig().getProgressMenuSpell());
+        } else {
+            cast(player, progressMenuTemplate.getKey());
+        }
+    }
+
+    /**
+     * Casts a spell on the player's Mage, falling back to the console castp command if the Magic API is unavailable. The Mage's Spell is not cached here: fetching it is a map lookup inside the Mage, and Magic replaces a Mage's spells on its own reloads, which this plugin doesn't observe, so a cached Spell could cast a stale configuration.
+     * @param player The player to cast as.
+     * @param spellKey The key of the spell to cast.
+     */
+    public void cast(Player player, String spellKey) {
+        if (api == null) {
+            castCommand(player, spellKey);
+
+            return;
+        }
+
+        Mage mage = api.getController().getMage(player);
+        Spell spell = mage == null ? null : mage.getSpell(spellKey);
+
+        if (spell == null) {
+            castCommand(player, spellKey);
+        } else {
+            spell.cast();
+        }
+    }
+
+    private void castCommand(Player player, String spellKey) {
+        String commandStr = String.format("castp %s %s", player.getName(), spellKey);
+
+        Bukkit.dispatchCommand(Bukkit.getConsoleSender(), commandStr);
     }
 }
@@ -0,0 +1,71 @@
+package io.github.grisstyl.potterplus.companion.listener;
+
+import io.github.grisstyl.potterplus.companion.PotterPlusController;
+import io.github.grisstyl.potterplus.companion.binding.BindingTable;
+import io.github.grisstyl.potterplus.companion.binding.Gesture;
+import io.github.grisstyl.potterplus.companion.file.ConfigSnapshot;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.inventory.EquipmentSlot;
+
+import java.util.UUID;
+
+/**
+ * Copyright (c) 2013-2020 Tyler Grissom
+ */
+@RequiredArgsConstructor
+public class BindingListener implements Listener {
+
+    @Getter @NonNull
+    private final PotterPlusController controller;
+
+    @Getter @NonNull
+    private final ClickThrottle throttle;
+
+    @EventHandler
+    public void onInteract(final PlayerInteractEvent event) {
+        ConfigSnapshot config = controller.getConfig().getSnapshot();
+        BindingTable bindings = config.getBindings();
+
+        if (bindings.isEmpty()) {
+            return;
+        }
+
+        int action = Gesture.action(event.getAction());
+
+        if (action < 0) {
+            return;
+        }
+
+        Player player = event.getPlayer();
+        UUID uuid = player.getUniqueId();
+        HeldItemCache heldItems = controller.getHeldItems();
+        long classification = heldItems.getClassification(uuid);
+        boolean offHand = event.getHand() == EquipmentSlot.OFF_HAND;
+        boolean wand = (classification & (offHand ? HeldItemCache.OFF_HAND_WAND : HeldItemCache.MAIN_HAND_WAND)) != 0;
+        Material material = event.getMaterial();
+        int held = wand ? Gesture.HELD_WAND : material == Material.AIR ? Gesture.HELD_EMPTY : Gesture.HELD_ITEM;
+
+        String spell = bindings.lookup(
+                Gesture.pack(action, player.isSneaking(), offHand, held),
+                material,
+                wand ? heldItems.getWandKey(classification, offHand) : null
+        );
+
+        if (spell != null && throttle.tryAcquire(uuid, config.getBindingCooldown(), 1)) {
+            controller.getMagic().cast(player, spell);
+        }
+    }
+
+    @EventHandler
+    public void onQuit(final PlayerQuitEvent event) {
+        throttle.forget(event.getPlayer().getUniqueId());
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.grisstyl.potterplus.companion.listener;
+
+import io.github.grisstyl.potterplus.api.misc.UUIDLongMap;
+import lombok.Getter;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.UUID;
+
+/**
+ * Copyright (c) 2013-2020 Tyler Grissom
+ */
+public class ClickThrottle {
+
+    private final UUIDLongMap lastTicks;
+    private final UUIDLongMap lastTimes;
+
+    private BukkitTask clock;
+    private long tick;
+
+    /**
+     * The number of clicks suppressed by the dedupe window or cooldown since the server started.
+     */
+    @Getter
+    private long suppressed;
+
+    public ClickThrottle() {
+        this.lastTicks = new UUIDLongMap();
+        this.lastTimes = new UUIDLongMap();
+    }
+
+    /**
+     * Starts the tick counter used for the dedupe window.
+     * @param plugin The plugin to schedule the counter with.
+     */
+    public void start(Plugin plugin) {
+        if (clock == null) {
+            this.clock = plugin.getServer().getScheduler().runTaskTimer(plugin, () -> tick++, 1L, 1L);
+        }
+    }
+
+    public void stop() {
+        if (clock != null) {
+            clock.cancel();
+
+            this.clock = null;
+        }
+
+        lastTicks.clear();
+        lastTimes.clear();
+    }
+
+    /**
+     * Checks whether a player's click may pass, recording it if so.
+     * @param uuid The UUID of the player.
+     * @param cooldown The minimum number of milliseconds between accepted clicks.
+     * @param dedupeTicks The number of ticks after an accepted click in which further clicks are dropped.
+     * @return Whether or not the click may pass.
+     */
+    public boolean tryAcquire(UUID uuid, long cooldown, int dedupeTicks) {
+        if (tick - lastTicks.get(uuid, Long.MIN_VALUE / 2) < dedupeTicks) {
+            suppressed++;
+
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+
+        if (now - lastTimes.get(uuid, Long.MIN_VALUE / 2) < cooldown) {
+            suppressed++;
+
+            return false;
+        }
+
+        lastTicks.put(uuid, tick);
+        lastTimes.put(uuid, now);
+
+        return true;
+    }
+
+    public void forget(UUID uuid) {
+        lastTicks.remove(uuid);
+        lastTimes.remove(uuid);
+    }
+}
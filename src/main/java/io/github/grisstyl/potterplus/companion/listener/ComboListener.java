@@ -0,0 +1,87 @@
+package io.github.grisstyl.potterplus.companion.listener;
+
+import io.github.grisstyl.potterplus.companion.PotterPlusController;
+import io.github.grisstyl.potterplus.companion.binding.ComboBuffer;
+import io.github.grisstyl.potterplus.companion.binding.ComboTrie;
+import io.github.grisstyl.potterplus.companion.file.ConfigSnapshot;
+import lombok.Getter;
+import lombok.NonNull;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.inventory.EquipmentSlot;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Copyright (c) 2013-2020 Tyler Grissom
+ */
+public class ComboListener implements Listener {
+
+    @Getter @NonNull
+    private final PotterPlusController controller;
+
+    private final Map<UUID, ComboBuffer> buffers;
+
+    public ComboListener(PotterPlusController controller) {
+        this.controller = controller;
+        this.buffers = new HashMap<>();
+    }
+
+    @EventHandler
+    public void onInteract(final PlayerInteractEvent event) {
+        if (event.getHand() != EquipmentSlot.HAND) {
+            return;
+        }
+
+        byte code;
+        Action action = event.getAction();
+
+        if (action == Action.LEFT_CLICK_AIR || action == Action.LEFT_CLICK_BLOCK) {
+            code = ComboTrie.LEFT;
+        } else if (action == Action.RIGHT_CLICK_AIR || action == Action.RIGHT_CLICK_BLOCK) {
+            code = ComboTrie.RIGHT;
+        } else {
+            return;
+        }
+
+        ConfigSnapshot config = controller.getConfig().getSnapshot();
+        ComboTrie combos = config.getCombos();
+        Player player = event.getPlayer();
+        UUID uuid = player.getUniqueId();
+
+        if (combos.isEmpty() || !controller.getHeldItems().isHoldingWand(uuid)) {
+            return;
+        }
+
+        ComboBuffer buffer = buffers.get(uuid);
+
+        if (buffer == null) {
+            buffer = new ComboBuffer(combos.getMaxLength());
+
+            buffers.put(uuid, buffer);
+        } else if (buffer.capacity() != combos.getMaxLength()) {
+            buffer.resize(combos.getMaxLength());
+        }
+
+        buffer.push(code, System.currentTimeMillis());
+
+        String spell = combos.match(buffer, config.getComboTimeout());
+
+        if (spell != null) {
+            buffer.clear();
+
+            controller.getMagic().cast(player, spell);
+        }
+    }
+
+    @EventHandler
+    public void onQuit(final PlayerQuitEvent event) {
+        buffers.remove(event.getPlayer().getUniqueId());
+    }
+}
@@ -0,0 +1,252 @@
+package io.github.grisstyl.potterplus.companion.listener;
+
+import io.github.grisstyl.potterplus.api.misc.UUIDLongMap;
+import io.github.grisstyl.potterplus.companion.PotterPlusController;
+import lombok.Getter;
+import lombok.NonNull;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.*;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+import java.util.*;
+
+/**
+ * Copyright (c) 2013-2020 Tyler Grissom
+ */
+public class HeldItemCache implements Listener {
+
+    /**
+     * Set when the item in the player's main hand is a Magic wand.
+     */
+    public static final long MAIN_HAND_WAND = 1L;
+
+    /**
+     * Set when the item in the player's off hand is a Magic wand.
+     */
+    public static final long OFF_HAND_WAND = 1L << 1;
+
+    private static final int MAIN_HAND_KEY_SHIFT = 8;
+    private static final int OFF_HAND_KEY_SHIFT = 32;
+    private static final long KEY_MASK = 0xFFFFFFL;
+
+    /**
+     * The minimum number of milliseconds between two reclassifications of a player on a cache miss.
+     */
+    private static final long MISS_COOLDOWN = 1000L;
+
+    @Getter @NonNull
+    private final PotterPlusController controller;
+
+    private final UUIDLongMap classifications;
+    private final Set<UUID> dirty;
+    private final ClickThrottle misses;
+
+    private final Map<String, Integer> wandKeyIds;
+    private final List<String> wandKeys;
+
+    private boolean flushScheduled;
+
+    public HeldItemCache(PotterPlusController controller) {
+        this.controller = controller;
+        this.classifications = new UUIDLongMap();
+        this.dirty = new HashSet<>();
+        this.misses = new ClickThrottle();
+        this.wandKeyIds = new HashMap<>();
+        this.wandKeys = new ArrayList<>();
+    }
+
+    /**
+     * Fetches the cached classification of the items a player is holding.
+     * @param uuid The UUID of the player.
+     * @return The classification bits.
+     */
+    public long getClassification(UUID uuid) {
+        return classifications.get(uuid, 0L);
+    }
+
+    public boolean isHoldingWand(UUID uuid) {
+        return (getClassification(uuid) & MAIN_HAND_WAND) != 0;
+    }
+
+    /**
+     * Checks if a player is holding a wand, reclassifying their hands on a cache miss. Other plugins can put a wand straight into a hand without firing any event this cache listens to, ex. Magic's /wand, which this catches. Holding no wand is the common case, so a player is reclassified on a miss at most once per second rather than calling into Magic on every check.
+     * @param player The player.
+     * @return Whether or not the player is holding a wand in their main hand.
+     */
+    public boolean isHoldingWand(Player player) {
+        if (isHoldingWand(player.getUniqueId())) {
+            return true;
+        }
+
+        if (!misses.tryAcquire(player.getUniqueId(), MISS_COOLDOWN, 0)) {
+            return false;
+        }
+
+        refresh(player);
+
+        return isHoldingWand(player.getUniqueId());
+    }
+
+    /**
+     * Decodes the template key of a wand from a classification.
+     * @param classification The classification bits.
+     * @param offHand Whether to decode the off hand instead of the main hand.
+     * @return The wand template key, or null if that hand does not hold a wand.
+     */
+    public String getWandKey(long classification, boolean offHand) {
+        int id = (int) ((classification >>> (offHand ? OFF_HAND_KEY_SHIFT : MAIN_HAND_KEY_SHIFT)) & KEY_MASK);
+
+        return id == 0 ? null : wandKeys.get(id - 1);
+    }
+
+    private long internWandKey(String key) {
+        if (key == null) {
+            return 0L;
+        }
+
+        Integer id = wandKeyIds.get(key);
+
+        if (id == null) {
+            wandKeys.add(key);
+
+            id = wandKeys.size();
+
+            wandKeyIds.put(key, id);
+        }
+
+        return id & KEY_MASK;
+    }
+
+    /**
+     * Reclassifies every online player, for example after Magic has reloaded its wands.
+     */
+    public void refreshAll() {
+        classifications.clear();
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            refresh(player);
+        }
+    }
+
+    public void refresh(Player player) {
+        PlayerInventory inventory = player.getInventory();
+
+        update(player, inventory.getItemInMainHand(), inventory.getItemInOffHand());
+    }
+
+    private void update(Player player, ItemStack mainHand, ItemStack offHand) {
+        long classification = 0L;
+
+        if (controller.getMagic().isWand(mainHand)) {
+            classification |= MAIN_HAND_WAND;
+            classification |= internWandKey(controller.getMagic().getWandKey(mainHand)) << MAIN_HAND_KEY_SHIFT;
+        }
+
+        if (controller.getMagic().isWand(offHand)) {
+            classification |= OFF_HAND_WAND;
+            classification |= internWandKey(controller.getMagic().getWandKey(offHand)) << OFF_HAND_KEY_SHIFT;
+        }
+
+        classifications.put(player.getUniqueId(), classification);
+    }
+
+    /**
+     * Reclassifies a player on the next tick, once an inventory change has been applied.
+     * @param entity The entity whose inventory changed.
+     */
+    private void markDirty(HumanEntity entity) {
+        if (!(entity instanceof Player)) {
+            return;
+        }
+
+        dirty.add(entity.getUniqueId());
+
+        if (!flushScheduled) {
+            this.flushScheduled = true;
+
+            Bukkit.getScheduler().runTask(controller.getPlugin(), this::flush);
+        }
+    }
+
+    private void flush() {
+        this.flushScheduled = false;
+
+        for (UUID uuid : dirty) {
+            Player player = Bukkit.getPlayer(uuid);
+
+            if (player != null) {
+                refresh(player);
+            }
+        }
+
+        dirty.clear();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(final PlayerJoinEvent event) {
+        refresh(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(final PlayerQuitEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+
+        classifications.remove(uuid);
+        dirty.remove(uuid);
+        misses.forget(uuid);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemHeld(final PlayerItemHeldEvent event) {
+        Player player = event.getPlayer();
+        PlayerInventory inventory = player.getInventory();
+
+        update(player, inventory.getItem(event.getNewSlot()), inventory.getItemInOffHand());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSwapHands(final PlayerSwapHandItemsEvent event) {
+        update(event.getPlayer(), event.getMainHandItem(), event.getOffHandItem());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(final InventoryClickEvent event) {
+        markDirty(event.getWhoClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(final InventoryDragEvent event) {
+        markDirty(event.getWhoClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDrop(final PlayerDropItemEvent event) {
+        markDirty(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPickup(final EntityPickupItemEvent event) {
+        if (event.getEntity() instanceof HumanEntity) {
+            markDirty((HumanEntity) event.getEntity());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemBreak(final PlayerItemBreakEvent event) {
+        markDirty(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(final PlayerRespawnEvent event) {
+        markDirty(event.getPlayer());
+    }
+}
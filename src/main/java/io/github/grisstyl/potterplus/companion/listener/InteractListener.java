@@ -1,16 +1,18 @@
 package io.github.grisstyl.potterplus.companion.listener;
 
+import io.github.grisstyl.potterplus.api.permission.PermissionCache;
+import io.github.grisstyl.potterplus.companion.file.ConfigSnapshot;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.inventory.EquipmentSlot;
 import io.github.grisstyl.potterplus.companion.PotterPlusPlugin;
-import io.github.grisstyl.potterplus.companion.file.ConfigFile;
 
 /**
  * Copyright (c) 2013-2020 Tyler Grissom
@@ -18,24 +20,37 @@ import io.github.grisstyl.potterplus.companion.file.ConfigFile;
 @RequiredArgsConstructor
 public class InteractListener implements Listener {
 
+    private static final String CLICK_PERMISSION = "potterplus.progressmenu.click";
+    private static final int CLICK_NODE = PermissionCache.intern(CLICK_PERMISSION);
+
     @Getter @NonNull
     private final PotterPlusPlugin plugin;
 
+    @Getter @NonNull
+    private final ClickThrottle throttle;
+
     @EventHandler
     public void onInteract(final PlayerInteractEvent event) {
-        ConfigFile config = plugin.getController().getConfig();
+        if (event.getHand() != EquipmentSlot.HAND) {
+            return;
+        }
 
-        if (config.isProgressMenuClickEnabled()) {
-            Player player = event.getPlayer();
-            Action action = event.getAction();
+        Player player = event.getPlayer();
+        Action action = event.getAction();
 
-            if (player.isSneaking()) {
-                if (action.equals(Action.RIGHT_CLICK_AIR) || action.equals(Action.RIGHT_CLICK_BLOCK)) {
-                    String commandStr = String.format("castp %s %s", player.getName(), config.getProgressMenuSpell());
+        if (player.isSneaking() && (action == Action.RIGHT_CLICK_AIR || action == Action.RIGHT_CLICK_BLOCK)) {
+            if (PermissionCache.has(player, CLICK_PERMISSION, CLICK_NODE) && plugin.getController().getHeldItems().isHoldingWand(player)) {
+                ConfigSnapshot config = plugin.getController().getConfig().getSnapshot();
 
-                    Bukkit.dispatchCommand(Bukkit.getConsoleSender(), commandStr);
+                if (throttle.tryAcquire(player.getUniqueId(), config.getProgressMenuCooldown(), config.getProgressMenuDedupeTicks())) {
+                    plugin.getController().getMagic().castProgressMenu(player);
                 }
             }
         }
     }
+
+    @EventHandler
+    public void onQuit(final PlayerQuitEvent event) {
+        throttle.forget(event.getPlayer().getUniqueId());
+    }
 }
@@ -0,0 +1,116 @@
+package io.github.grisstyl.potterplus.api.misc;
+
+import org.bukkit.ChatColor;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the single-pass color and strip scanners against the regex-based implementation they replaced.
+ */
+public class StringUtilitiesTest {
+
+    /**
+     * Characters the random Strings are built from, weighted towards code characters and including non-ASCII digits, which must not count as hex digits.
+     */
+    private static final String ALPHABET = "&&&##\u00A7\u00A7aAfF09xXkKrRgGz \u0660\uFF10";
+
+    private static final int CASES = 200_000;
+
+    // The previous implementation, kept as the reference.
+
+    private static String referenceHex(String message) {
+        Matcher matcher = Pattern.compile("&#([A-Fa-f0-9]{6})#").matcher(message);
+        StringBuffer buffer = new StringBuffer(message.length() + 4 * 8);
+
+        while (matcher.find()) {
+            String group = matcher.group(1);
+
+            matcher.appendReplacement(buffer, "&x"
+                    + "&" + group.charAt(0) + "&" + group.charAt(1)
+                    + "&" + group.charAt(2) + "&" + group.charAt(3)
+                    + "&" + group.charAt(4) + "&" + group.charAt(5));
+        }
+
+        return matcher.appendTail(buffer).toString();
+    }
+
+    private static String referenceColor(String str) {
+        str = ChatColor.translateAlternateColorCodes('&', str);
+
+        if (str.contains("#")) {
+            str = referenceHex(str);
+        }
+
+        return str;
+    }
+
+    private static String referenceStrip(String str) {
+        return ChatColor.stripColor(referenceColor(str));
+    }
+
+    private static String randomString(Random random) {
+        StringBuilder builder = new StringBuilder();
+        int length = random.nextInt(24);
+
+        for (int i = 0; i < length; i++) {
+            builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+
+        if (random.nextInt(4) == 0) {
+            builder.insert(random.nextInt(builder.length() + 1), "&#" + String.format("%06x", random.nextInt(1 << 24)) + (random.nextBoolean() ? "#" : ""));
+        }
+
+        if (random.nextInt(6) == 0) {
+            builder.insert(random.nextInt(builder.length() + 1), "&#" + String.format("%06X", random.nextInt(1 << 24)) + "#");
+        }
+
+        return builder.toString();
+    }
+
+    @Test
+    public void colorMatchesReference() {
+        Random random = new Random(42L);
+
+        for (int i = 0; i < CASES; i++) {
+            String str = randomString(random);
+
+            assertEquals("color(\"" + str + "\")", referenceColor(str), StringUtilities.color(str));
+        }
+    }
+
+    @Test
+    public void stripMatchesReference() {
+        Random random = new Random(7L);
+
+        for (int i = 0; i < CASES; i++) {
+            String str = randomString(random);
+
+            assertEquals("strip(\"" + str + "\")", referenceStrip(str), StringUtilities.strip(str));
+        }
+    }
+
+    @Test
+    public void colorMatchesReferenceOnKnownCases() {
+        for (String str : Arrays.asList("", "&", "&&", "&6Gold", "&#", "&#12345", "&#123456", "&#123456#", "&#12345G#", "&&#abcdef#", "&#ABCDEF#&l!", "\u00A7a&\u00A7", "&x&#000000#x")) {
+            assertEquals(referenceColor(str), StringUtilities.color(str));
+            assertEquals(referenceStrip(str), StringUtilities.strip(str));
+        }
+    }
+
+    @Test
+    public void listOverloadsMatchSingleStrings() {
+        assertEquals(Arrays.asList(StringUtilities.strip("&6a"), StringUtilities.strip("&#123456#b")), StringUtilities.strip("&6a", "&#123456#b"));
+        assertEquals(Arrays.asList(StringUtilities.color("&6a"), StringUtilities.color("&#123456#b")), StringUtilities.color("&6a", "&#123456#b"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void colorRejectsNull() {
+        StringUtilities.color((String) null);
+    }
+}